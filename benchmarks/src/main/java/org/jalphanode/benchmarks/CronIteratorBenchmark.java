@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.benchmarks;
+
+import org.jalphanode.scheduler.CronIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing the next fire time of cron expressions, from every second to once every four years, in time zones
+ * without daylight saving time, with a one hour shift and with a half hour shift.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CronIteratorBenchmark {
+
+    private static final int SEEDS = 1024;
+
+    // 2024-01-01T00:00:00Z
+    private static final long FIRST_SEED = 1704067200000L;
+
+    private static final long SEED_RANGE = TimeUnit.DAYS.toMillis(4 * 365);
+
+    @Param({ "* * * * * ?", "0 */15 9-17 ? * MON-FRI", "0 0 12 1 * ?", "0 0 0 29 2 ?" })
+    public String expression;
+
+    @Param({ "UTC", "Europe/Lisbon", "Australia/Lord_Howe" })
+    public String timeZone;
+
+    private CronIterator iterator;
+
+    private final long[] seeds = new long[SEEDS];
+
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        iterator = new CronIterator(expression, TimeZone.getTimeZone(timeZone));
+
+        final Random random = new Random(42);
+        for (int i = 0; i < SEEDS; i++) {
+            seeds[i] = FIRST_SEED + (long) (random.nextDouble() * SEED_RANGE);
+        }
+    }
+
+    @Benchmark
+    public long nextEpochMillis() {
+        return iterator.nextEpochMillis(nextSeed());
+    }
+
+    @Benchmark
+    public Date nextDate() {
+        return iterator.next(new Date(nextSeed()));
+    }
+
+    private long nextSeed() {
+        next = (next + 1) & (SEEDS - 1);
+        return seeds[next];
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.benchmarks;
+
+import org.jalphanode.scheduler.DelayTimerQueue;
+import org.jalphanode.scheduler.TimerQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the delay queue holding scheduled tasks at 1k, 100k and 1M tasks: a single insert and take with the queue
+ * holding that many tasks, and inserting then taking all of them.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DelayQueueBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private TimerQueue<Timeout> queue;
+
+    private Timeout[] expired;
+
+    @Setup
+    public void setUp() {
+        final long now = System.currentTimeMillis();
+        final Random random = new Random(42);
+
+        // pending tasks, far enough to never expire during the run
+        queue = new DelayTimerQueue<>();
+        for (int i = 0; i < size; i++) {
+            queue.add(new Timeout(now + TimeUnit.HOURS.toMillis(1) + random.nextInt(Integer.MAX_VALUE)));
+        }
+
+        expired = new Timeout[size];
+        for (int i = 0; i < size; i++) {
+            expired[i] = new Timeout(now - random.nextInt(Integer.MAX_VALUE));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Timeout addAndTake() throws InterruptedException {
+        queue.add(expired[0]);
+        return queue.take();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = 1)
+    @Measurement(iterations = 10, batchSize = 1)
+    public Timeout fillAndDrain() throws InterruptedException {
+        final TimerQueue<Timeout> fresh = new DelayTimerQueue<>();
+        for (Timeout timeout : expired) {
+            fresh.add(timeout);
+        }
+
+        Timeout last = null;
+        for (int i = 0; i < expired.length; i++) {
+            last = fresh.take();
+        }
+
+        return last;
+    }
+
+    /**
+     * Ordered the same way as the scheduler's recurrent tasks.
+     */
+    public static final class Timeout implements Delayed {
+
+        private final long executionTime;
+
+        Timeout(final long executionTime) {
+            this.executionTime = executionTime;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(executionTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed o) {
+            return Long.compare(executionTime, ((Timeout) o).executionTime);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.benchmarks;
+
+import org.jalphanode.annotation.AfterTask;
+import org.jalphanode.annotation.BeforeTask;
+import org.jalphanode.annotation.Listener;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.JAlphaNodeConfigBuilder;
+import org.jalphanode.config.NotificationExecutorMode;
+import org.jalphanode.executors.LazyInitializingNotifierExecutor;
+import org.jalphanode.executors.RingBufferNotifierExecutor;
+import org.jalphanode.notification.NotifierImpl;
+import org.jalphanode.notification.TaskExecutionEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of notifying task listeners, invoked twice per task execution, with synchronous listeners and with
+ * asynchronous listeners handed to the notifier thread pool or ring buffer.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotifierBenchmark {
+
+    private static final String TASK_NAME = "benchmark-task";
+    private static final long SCHEDULED_TIME = System.currentTimeMillis();
+    private static final long DURATION = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({ "true", "false" })
+    public boolean sync;
+
+    @Param({ "0", "1", "4" })
+    public int listeners;
+
+    @Param({ "THREAD_POOL", "RING_BUFFER" })
+    public NotificationExecutorMode executor;
+
+    private Runnable stopExecutor;
+
+    private NotifierImpl notifier;
+
+    @Setup
+    public void setUp() {
+        final JAlphaNodeConfig config = new JAlphaNodeConfigBuilder().asyncNotificationExecutor()
+                .withExecutor(executor).build();
+
+        if (executor == NotificationExecutorMode.RING_BUFFER) {
+            final RingBufferNotifierExecutor ringBuffer = new RingBufferNotifierExecutor(config);
+            notifier = new NotifierImpl(ringBuffer);
+            stopExecutor = ringBuffer::stop;
+        } else {
+            final LazyInitializingNotifierExecutor threadPool = new LazyInitializingNotifierExecutor(config);
+            notifier = new NotifierImpl(threadPool);
+            stopExecutor = threadPool::stop;
+        }
+
+        for (int i = 0; i < listeners; i++) {
+            notifier.addListener(sync ? new SyncListener() : new AsyncListener());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        stopExecutor.run();
+    }
+
+    @Benchmark
+    public void beforeTask() {
+        notifier.beforeTask(TASK_NAME, SCHEDULED_TIME, SCHEDULED_TIME, null);
+    }
+
+    @Benchmark
+    public void afterTask() {
+        notifier.afterTask(TASK_NAME, SCHEDULED_TIME, SCHEDULED_TIME, DURATION, null, null);
+    }
+
+    @Listener
+    public static class SyncListener {
+
+        private int notifications;
+
+        @BeforeTask
+        public void beforeTask(final TaskExecutionEvent event) {
+            notifications++;
+        }
+
+        @AfterTask
+        public void afterTask(final TaskExecutionEvent event) {
+            notifications++;
+        }
+    }
+
+    @Listener(sync = false)
+    public static class AsyncListener extends SyncListener { }
+}
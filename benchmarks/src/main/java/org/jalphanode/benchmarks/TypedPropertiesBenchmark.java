@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.benchmarks;
+
+import org.jalphanode.config.TypedProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up configuration properties: present, missing (default value) and resolved as system properties.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedPropertiesBenchmark {
+
+    private static final String SYSTEM_PROPERTY = "jalphanode.benchmark.poolSize";
+
+    private TypedProperties properties;
+
+    @Setup
+    public void setUp() {
+        System.setProperty(SYSTEM_PROPERTY, "16");
+
+        properties = new TypedProperties();
+        properties.setProperty("keepAlive", "600000");
+        properties.setProperty("threadPrefix", "task-pool");
+        properties.setProperty("queueSize", "5000");
+        properties.setProperty("shutdownTimeout", "60000");
+        properties.setProperty("async", "true");
+        properties.setProperty("poolSize", SYSTEM_PROPERTY);
+    }
+
+    @Benchmark
+    public int getIntProperty() {
+        return properties.getIntProperty("queueSize", 0);
+    }
+
+    @Benchmark
+    public long getLongProperty() {
+        return properties.getLongProperty("shutdownTimeout", 0);
+    }
+
+    @Benchmark
+    public boolean getBooleanProperty() {
+        return properties.getBooleanProperty("async", false);
+    }
+
+    @Benchmark
+    public String getStringProperty() {
+        return properties.getProperty("threadPrefix", "", false);
+    }
+
+    @Benchmark
+    public int getMissingProperty() {
+        return properties.getIntProperty("lanes", 1);
+    }
+
+    @Benchmark
+    public int getSystemProperty() {
+        return properties.getIntProperty("poolSize", 0, true);
+    }
+}
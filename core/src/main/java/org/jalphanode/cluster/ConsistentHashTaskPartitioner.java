@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import org.jalphanode.config.JAlphaNodeConfig;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Places the members on a consistent hash ring, each member at several virtual points, and assigns each task to the
+ * member owning the first point following the hash of the task name. When a member joins or leaves only the tasks
+ * between its points and the preceding ones move, about 1/N of the tasks.
+ *
+ * <p>The ring is rebuilt when a view is installed and published as an immutable snapshot, so looking up an owner is
+ * a lock-free binary search.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ConsistentHashTaskPartitioner implements TaskPartitioner {
+
+    protected static final String VIRTUAL_NODES_PROPERTY = "virtualNodes";
+    protected static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int virtualNodes;
+
+    private volatile Ring ring = new Ring(new long[0], new NodeAddress[0]);
+
+    /**
+     * Creates a new partitioner, with the number of virtual points per member read from the membership properties.
+     *
+     * @param  config  configuration
+     */
+    @Inject
+    public ConsistentHashTaskPartitioner(final JAlphaNodeConfig config) {
+        this(Preconditions.checkNotNull(config, "config").getMembership().getProperties().getIntProperty(
+                VIRTUAL_NODES_PROPERTY, DEFAULT_VIRTUAL_NODES));
+    }
+
+    /**
+     * Creates a new partitioner.
+     *
+     * @param  virtualNodes  the number of points of each member on the ring
+     */
+    public ConsistentHashTaskPartitioner(final int virtualNodes) {
+        Preconditions.checkArgument(virtualNodes > 0, "virtualNodes must be greater than 0");
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void viewAccepted(final List<NodeAddress> members, final NodeAddress masterAddress) {
+        Preconditions.checkNotNull(members, "members");
+
+        final TreeMap<Long, NodeAddress> points = new TreeMap<>();
+        for (NodeAddress member : members) {
+            final String name = member.toString();
+            for (int i = 0; i < this.virtualNodes; i++) {
+                final long point = HASH.newHasher().putString(name, Charsets.UTF_8).putInt(i).hash().asLong();
+
+                // every node sees the members in the same order, so collisions resolve the same way everywhere
+                points.putIfAbsent(point, member);
+            }
+        }
+
+        final long[] ringPoints = new long[points.size()];
+        final NodeAddress[] ringOwners = new NodeAddress[points.size()];
+        int index = 0;
+        for (Map.Entry<Long, NodeAddress> entry : points.entrySet()) {
+            ringPoints[index] = entry.getKey();
+            ringOwners[index] = entry.getValue();
+            index++;
+        }
+
+        this.ring = new Ring(ringPoints, ringOwners);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NodeAddress getOwner(final String taskName) {
+        return this.ring.getOwner(HASH.hashString(taskName, Charsets.UTF_8).asLong());
+    }
+
+    private static final class Ring {
+
+        private final long[] points;
+        private final NodeAddress[] owners;
+
+        private Ring(final long[] points, final NodeAddress[] owners) {
+            this.points = points;
+            this.owners = owners;
+        }
+
+        private NodeAddress getOwner(final long hash) {
+            if (this.points.length == 0) {
+                return null;
+            }
+
+            int index = Arrays.binarySearch(this.points, hash);
+            if (index < 0) {
+
+                // first point following the hash, wrapping around the ring
+                index = -index - 1;
+                if (index == this.points.length) {
+                    index = 0;
+                }
+            }
+
+            return this.owners[index];
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Assigns each task to the node elected by {@link MasterNodeElectionPolicy#elect(String, List)}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ElectionPolicyTaskPartitioner implements TaskPartitioner {
+
+    private final MasterNodeElectionPolicy electionPolicy;
+
+    private volatile List<NodeAddress> members = Collections.emptyList();
+
+    /**
+     * Creates a new partitioner.
+     *
+     * @param  electionPolicy  the policy electing the owner of each task
+     */
+    @Inject
+    public ElectionPolicyTaskPartitioner(final MasterNodeElectionPolicy electionPolicy) {
+        this.electionPolicy = Preconditions.checkNotNull(electionPolicy, "electionPolicy");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void viewAccepted(final List<NodeAddress> members, final NodeAddress masterAddress) {
+        this.members = ImmutableList.copyOf(Preconditions.checkNotNull(members, "members"));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NodeAddress getOwner(final String taskName) {
+        final List<NodeAddress> current = this.members;
+        return current.isEmpty() ? null : this.electionPolicy.elect(taskName, current);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+/**
+ * Decides whether an execution holding a fencing token may still run. The token identifies the view and the task
+ * assignment under which the firing was dispatched, see {@link MembershipManager#getFencingToken()}. During a network
+ * partition every side elects its own owners, so a check backed by storage shared by all the nodes can reject the side
+ * holding an older view.
+ *
+ * <p>The check runs before every execution, from the worker thread, and tasks can run it again through
+ * {@link org.jalphanode.task.TaskContext#isFencedOff()}, so implementations should be fast and thread safe. A custom
+ * check is plugged in by overriding {@code InjectorModule.bindFencingCheck()}.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public interface FencingCheck {
+
+    /**
+     * Check that lets every execution run.
+     */
+    FencingCheck NONE = (taskName, fencingToken) -> true;
+
+    /**
+     * Checks whether an execution of a task may run.
+     *
+     * @param   taskName      the task name
+     * @param   fencingToken  the view id in the high 32 bits and the sequence number of the task assignment within the
+     *                        view in the low 32 bits, see {@link MembershipManager#getFencingToken()}
+     *
+     * @return  true if the execution may run, false if it is fenced off
+     */
+    boolean validate(String taskName, long fencingToken);
+}
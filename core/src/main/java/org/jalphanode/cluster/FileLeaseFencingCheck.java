@@ -0,0 +1,243 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import org.jalphanode.annotation.Start;
+import org.jalphanode.annotation.Stop;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.TypedPropertiesConfig;
+import org.jalphanode.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.FileLock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fences off stale executions through a lease file per task, kept in a directory shared by all the nodes, for
+ * instance on a network file system. The lease records the fencing token, the node and the time of the last
+ * execution allowed to run. An execution may run if its token is greater than the one of the lease, or equal to it
+ * and the lease is held by the same node, so when both sides of a partition elect an owner for the same task, only
+ * the side holding the newest view runs it, and with equal tokens the first one to take the lease. Tokens grow
+ * whenever tasks move, including the moves of a new task assignment within a view, so a new owner always takes the
+ * lease over.
+ *
+ * <p>A lease not renewed for {@code fencingLeaseDuration} ms expires and can be taken with any token, otherwise a
+ * cluster restarted from scratch, whose view ids start over, would be fenced off for good. Leases are renewed every
+ * third of that duration for as long as their holder owns the task, whether it runs or not, so tasks firing less
+ * often than the lease duration keep their lease between firings.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class FileLeaseFencingCheck implements FencingCheck {
+
+    public static final String FENCING_DIRECTORY_PROPERTY = "fencingDirectory";
+
+    protected static final String LEASE_DURATION_PROPERTY = "fencingLeaseDuration";
+    protected static final long DEFAULT_LEASE_DURATION = 60000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileLeaseFencingCheck.class);
+
+    private static final String LEASE_SUFFIX = ".lease";
+
+    private final File directory;
+    private final long leaseDuration;
+    private final MembershipManager membershipManager;
+
+    // file locks are held by the whole JVM, so threads of this node take turns before locking the lease
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+    // the token of the leases held by the current node, by task name
+    private final ConcurrentMap<String, Long> held = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * Creates a new check, with the lease directory and duration read from the membership properties.
+     *
+     * @param  config             configuration
+     * @param  membershipManager  the membership manager
+     */
+    @Inject
+    public FileLeaseFencingCheck(final JAlphaNodeConfig config, final MembershipManager membershipManager) {
+        this(getDirectory(Preconditions.checkNotNull(config, "config").getMembership().getProperties()),
+            config.getMembership().getProperties().getLongProperty(LEASE_DURATION_PROPERTY, DEFAULT_LEASE_DURATION),
+            membershipManager);
+    }
+
+    /**
+     * Creates a new check.
+     *
+     * @param  directory          the directory holding the lease files
+     * @param  leaseDuration      the time in ms after which a lease not renewed expires
+     * @param  membershipManager  supplies the address of the current node and the tasks it owns
+     */
+    public FileLeaseFencingCheck(final File directory, final long leaseDuration,
+            final MembershipManager membershipManager) {
+        Preconditions.checkArgument(leaseDuration > 0, "leaseDuration must be greater than 0");
+        this.directory = Preconditions.checkNotNull(directory, "directory");
+        this.leaseDuration = leaseDuration;
+        this.membershipManager = Preconditions.checkNotNull(membershipManager, "membershipManager");
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOG.warn("Could not create the fencing directory {}", directory);
+        }
+    }
+
+    private static File getDirectory(final TypedPropertiesConfig properties) {
+        final String directory = properties.getProperty(FENCING_DIRECTORY_PROPERTY, true);
+        Preconditions.checkArgument(directory != null, "%s property is missing", FENCING_DIRECTORY_PROPERTY);
+
+        return new File(directory);
+    }
+
+    /**
+     * Starts renewing the leases held by the current node.
+     */
+    @Start(priority = 120)
+    public void start() {
+        if (this.heartbeat == null) {
+            final long interval = Math.max(1, this.leaseDuration / 3);
+            this.heartbeat = Executors.newSingleThreadScheduledExecutor(DaemonThreadFactory.newInstance(
+                        "fencing-heartbeat", Thread.NORM_PRIORITY));
+            this.heartbeat.scheduleWithFixedDelay(this::renewLeases, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops renewing the leases, which expire unless another node takes them over first.
+     */
+    @Stop(priority = 140)
+    public void stop() {
+        if (this.heartbeat != null) {
+            this.heartbeat.shutdownNow();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean validate(final String taskName, final long fencingToken) {
+        Preconditions.checkNotNull(taskName, "taskName");
+
+        final boolean valid = this.takeLease(taskName, fencingToken);
+        if (valid) {
+            this.held.put(taskName, fencingToken);
+        } else {
+            this.held.remove(taskName);
+        }
+
+        return valid;
+    }
+
+    /**
+     * Renews the leases of the tasks the current node still owns, and forgets the others.
+     */
+    protected void renewLeases() {
+        for (Map.Entry<String, Long> lease : this.held.entrySet()) {
+            final String taskName = lease.getKey();
+            try {
+                if (!this.membershipManager.isTaskOwner(taskName) || !this.renewLease(taskName, lease.getValue())) {
+                    this.held.remove(taskName, lease.getValue());
+                }
+            } catch (final RuntimeException e) {
+                LOG.warn("Could not renew the lease of task {}", taskName, e);
+            }
+        }
+    }
+
+    // the file lock is only held for the duration of the try block
+    @SuppressWarnings("try")
+    private boolean takeLease(final String taskName, final long fencingToken) {
+        final String node = String.valueOf(this.membershipManager.getNodeAddress());
+        final Object lock = this.locks.computeIfAbsent(taskName, name -> new Object());
+        synchronized (lock) {
+            try (RandomAccessFile file = new RandomAccessFile(this.getLeaseFile(taskName), "rw");
+                    FileLock lease = file.getChannel().lock()) {
+                final long now = System.currentTimeMillis();
+                if (file.length() > 0) {
+                    final long leaseToken = file.readLong();
+                    final String leaseHolder = file.readUTF();
+                    final long renewedAt = file.readLong();
+
+                    final boolean expired = (now - renewedAt) >= this.leaseDuration;
+                    if (!expired
+                            && ((fencingToken < leaseToken)
+                                || ((fencingToken == leaseToken) && !node.equals(leaseHolder)))) {
+                        LOG.debug("Task {} with token {} is fenced off by {} with token {}", taskName, fencingToken,
+                            leaseHolder, leaseToken);
+                        return false;
+                    }
+
+                    file.seek(0);
+                }
+
+                file.writeLong(fencingToken);
+                file.writeUTF(node);
+                file.writeLong(now);
+                file.setLength(file.getFilePointer());
+
+                return true;
+            } catch (IOException e) {
+
+                // without the lease nothing tells this node is still entitled to run the task
+                LOG.warn("Could not check the lease of task {}: {}", taskName, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Renews a lease, as long as the current node still holds it with the specified token.
+     */
+    @SuppressWarnings("try")
+    private boolean renewLease(final String taskName, final long fencingToken) {
+        final String node = String.valueOf(this.membershipManager.getNodeAddress());
+        final Object lock = this.locks.computeIfAbsent(taskName, name -> new Object());
+        synchronized (lock) {
+            try (RandomAccessFile file = new RandomAccessFile(this.getLeaseFile(taskName), "rw");
+                    FileLock lease = file.getChannel().lock()) {
+                if ((file.length() == 0) || (file.readLong() != fencingToken) || !node.equals(file.readUTF())) {
+                    return false;
+                }
+
+                file.writeLong(System.currentTimeMillis());
+                return true;
+            } catch (IOException e) {
+                LOG.warn("Could not renew the lease of task {}: {}", taskName, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private File getLeaseFile(final String taskName) throws UnsupportedEncodingException {
+        return new File(this.directory, URLEncoder.encode(taskName, "UTF-8") + LEASE_SUFFIX);
+    }
+}
@@ -34,4 +34,16 @@ public interface MasterNodeElectionPolicy {
      */
     NodeAddress elect(List<NodeAddress> nodes);
 
+    /**
+     * Elects the node owning the specified task. By default every task is owned by the master node.
+     *
+     * @param   taskName  the task name
+     * @param   nodes     the current nodes of the cluster
+     *
+     * @return  the address of the node owning the task
+     */
+    default NodeAddress elect(final String taskName, final List<NodeAddress> nodes) {
+        return this.elect(nodes);
+    }
+
 }
@@ -0,0 +1,45 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.util.List;
+
+/**
+ * Assigns every task to the master node.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class MasterTaskPartitioner implements TaskPartitioner {
+
+    private volatile NodeAddress masterAddress;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void viewAccepted(final List<NodeAddress> members, final NodeAddress masterAddress) {
+        this.masterAddress = masterAddress;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NodeAddress getOwner(final String taskName) {
+        return this.masterAddress;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.jalphanode.cluster;
 
+import java.io.Serializable;
+
 import java.util.List;
 
 import org.jalphanode.annotation.Start;
@@ -63,6 +65,40 @@ public interface MembershipManager {
      */
     List<NodeAddress> getMembers();
 
+    /**
+     * Checks whether the current node runs the specified task.
+     *
+     * @param   taskName  the task name
+     *
+     * @return  true if the task is assigned to the current node
+     */
+    boolean isTaskOwner(String taskName);
+
+    /**
+     * Gets the id of the view currently installed. Every new view gets a greater id.
+     *
+     * @return  the view id
+     */
+    long getViewId();
+
+    /**
+     * Gets the fencing token of the executions dispatched now: the view id in the high 32 bits and, when the task
+     * partitioner moves tasks within a view, the sequence number of its assignment in the low 32 bits. Tokens grow
+     * whenever the owners of the tasks change, so an execution holding an older token may no longer be entitled to
+     * run.
+     *
+     * @return  the fencing token
+     */
+    long getFencingToken();
+
+    /**
+     * Sends a message to every member of the cluster, including the current node. Members receive it through
+     * {@link TaskPartitioner#messageReceived(NodeAddress, Object)}.
+     *
+     * @param  message  the message to send
+     */
+    void broadcast(Serializable message);
+
     /**
      * Connects to a group. The client is now able to receive views.
      */
@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The load of a node, periodically broadcast to the cluster by {@link WeightedTaskPartitioner}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public final class NodeLoad implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+    private final double utilisation;
+    private final HashMap<String, Double> meanRuntimes;
+
+    /**
+     * Creates a new load report.
+     *
+     * @param  capacity      the number of tasks the node can run at the same time
+     * @param  utilisation   the fraction of the capacity spent running tasks since the previous report
+     * @param  meanRuntimes  the mean runtime in ms of each task run by the node
+     */
+    public NodeLoad(final int capacity, final double utilisation, final Map<String, Double> meanRuntimes) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be greater than 0");
+        this.capacity = capacity;
+        this.utilisation = utilisation;
+        this.meanRuntimes = new HashMap<>(Preconditions.checkNotNull(meanRuntimes, "meanRuntimes"));
+    }
+
+    /**
+     * Gets the number of tasks the node can run at the same time.
+     *
+     * @return  the capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the fraction of the capacity spent running tasks since the previous report.
+     *
+     * @return  the utilisation, between 0 and 1
+     */
+    public double getUtilisation() {
+        return this.utilisation;
+    }
+
+    /**
+     * Gets the mean runtime of the tasks run by the node.
+     *
+     * @return  the mean runtime in ms by task name
+     */
+    public Map<String, Double> getMeanRuntimes() {
+        return Collections.unmodifiableMap(this.meanRuntimes);
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Elects the owner of each task by rendezvous (highest random weight) hashing: every node gets a pseudo random weight
+ * for the task and the heaviest node wins. When a node leaves, only its tasks move; when a node joins, it only takes
+ * the tasks it now wins, about 1/N of them. The master node is still the first node of the cluster.
+ *
+ * <p>Owners are cached in a table per membership, replaced when the nodes change, so electing the owner of a task
+ * already seen is a lock-free map lookup. Callers are expected to pass the same immutable list of nodes until the
+ * membership changes: the table is found by identity, and the nodes are only compared when another list is passed.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class RendezvousMasterNodeElectionPolicy extends SimpleMasterNodeElectionPolicy {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private volatile OwnerTable table = new OwnerTable(ImmutableList.<NodeAddress>of());
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NodeAddress elect(final String taskName, final List<NodeAddress> nodes) {
+        Preconditions.checkNotNull(taskName, "taskName");
+        Preconditions.checkNotNull(nodes, "nodes");
+        Preconditions.checkArgument(!nodes.isEmpty(), "nodes must not be empty");
+
+        OwnerTable current = this.table;
+        if (current.source != nodes) {
+            current = current.nodes.equals(nodes) ? new OwnerTable(current, nodes) : new OwnerTable(nodes);
+            this.table = current;
+        }
+
+        return current.getOwner(taskName);
+    }
+
+    private static final class OwnerTable {
+
+        // the list passed by the caller, looked up by identity
+        private final List<NodeAddress> source;
+        private final List<NodeAddress> nodes;
+        private final long[] nodeHashes;
+        private final ConcurrentMap<String, NodeAddress> owners;
+
+        private OwnerTable(final List<NodeAddress> nodes) {
+            this.source = nodes;
+            this.nodes = ImmutableList.copyOf(nodes);
+            this.nodeHashes = new long[nodes.size()];
+            for (int i = 0; i < this.nodeHashes.length; i++) {
+                this.nodeHashes[i] = HASH.hashString(this.nodes.get(i).toString(), Charsets.UTF_8).asLong();
+            }
+
+            this.owners = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Shares the owners of a table for another list holding the same nodes.
+         */
+        private OwnerTable(final OwnerTable table, final List<NodeAddress> source) {
+            this.source = source;
+            this.nodes = table.nodes;
+            this.nodeHashes = table.nodeHashes;
+            this.owners = table.owners;
+        }
+
+        private NodeAddress getOwner(final String taskName) {
+            NodeAddress owner = this.owners.get(taskName);
+            if (owner == null) {
+                owner = this.elect(taskName);
+                this.owners.put(taskName, owner);
+            }
+
+            return owner;
+        }
+
+        private NodeAddress elect(final String taskName) {
+            final long taskHash = HASH.hashString(taskName, Charsets.UTF_8).asLong();
+
+            int winner = 0;
+            long maxWeight = weight(taskHash, this.nodeHashes[0]);
+            for (int i = 1; i < this.nodeHashes.length; i++) {
+                final long weight = weight(taskHash, this.nodeHashes[i]);
+                if (weight > maxWeight) {
+                    maxWeight = weight;
+                    winner = i;
+                }
+            }
+
+            return this.nodes.get(winner);
+        }
+
+        /**
+         * Murmur3 finalizer over both hashes, a cheap and well mixed pseudo random weight.
+         */
+        private static long weight(final long taskHash, final long nodeHash) {
+            long z = taskHash ^ nodeHash;
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+
+            return z ^ (z >>> 33);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import org.jalphanode.annotation.Stop;
+import org.jalphanode.scheduler.EpochScheduleIterator;
+import org.jalphanode.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replicates the last and next fire time of every task across the cluster, so a node taking a task over continues its
+ * schedule where the previous owner left it.
+ *
+ * <p>The owner records every firing it handles. Updates are broadcast in the background, folding the firings recorded
+ * while a broadcast is in flight into the next one, and a joining node receives the whole table through the JGroups
+ * state transfer. Entries only move forward: an update older than the recorded fire time is ignored.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ScheduleStateRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduleStateRegistry.class);
+
+    private final Provider<MembershipManager> membershipManager;
+
+    private final ConcurrentMap<String, ScheduleState> states = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ScheduleState> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(DaemonThreadFactory.newInstance(
+                "schedule-state", Thread.NORM_PRIORITY));
+
+    private final List<Runnable> ownersListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a new registry.
+     *
+     * @param  membershipManager  broadcasts the fire times
+     */
+    @Inject
+    public ScheduleStateRegistry(final Provider<MembershipManager> membershipManager) {
+        this.membershipManager = Preconditions.checkNotNull(membershipManager, "membershipManager");
+    }
+
+    /**
+     * Records a firing handled by the current node.
+     *
+     * @param  taskName        the task name
+     * @param  fireTime        the fire time handled, in ms since the epoch
+     * @param  nextFireTime    the next fire time, in ms since the epoch, or {@link EpochScheduleIterator#NO_NEXT} if
+     *                         unknown
+     */
+    public void fired(final String taskName, final long fireTime, final long nextFireTime) {
+        final NodeAddress address = this.membershipManager.get().getNodeAddress();
+        final ScheduleState state = new ScheduleState(fireTime, nextFireTime, String.valueOf(address));
+        if (this.update(taskName, state)) {
+            this.pending.put(taskName, state);
+            if (this.flushScheduled.compareAndSet(false, true)) {
+                this.broadcaster.execute(this::flush);
+            }
+        }
+    }
+
+    /**
+     * Gets the last fire time handled by the owner of a task.
+     *
+     * @param   taskName  the task name
+     *
+     * @return  the last fire time in ms since the epoch, or {@link Long#MIN_VALUE} if the task never fired
+     */
+    public long getLastFireTime(final String taskName) {
+        final ScheduleState state = this.states.get(taskName);
+        return (state == null) ? Long.MIN_VALUE : state.lastFireTime;
+    }
+
+    /**
+     * Gets the fire time missed by the previous owner of a task, when it left the cluster or lost the task before
+     * firing it. Invoked by the current owner of the task.
+     *
+     * @param   taskName  the task name
+     * @param   now       current time in ms
+     *
+     * @return  the missed fire time in ms since the epoch, or {@link EpochScheduleIterator#NO_NEXT} if none was
+     *          missed
+     */
+    public long getMissedFireTime(final String taskName, final long now) {
+        final ScheduleState state = this.states.get(taskName);
+        if ((state == null) || (state.nextFireTime == EpochScheduleIterator.NO_NEXT) || (state.nextFireTime >= now)
+                || (state.nextFireTime <= state.lastFireTime)) {
+            return EpochScheduleIterator.NO_NEXT;
+        }
+
+        // a previous owner, gone or no longer owning the task, skips the firings it did not dispatch in time
+        final String address = String.valueOf(this.membershipManager.get().getNodeAddress());
+        return address.equals(state.owner) ? EpochScheduleIterator.NO_NEXT : state.nextFireTime;
+    }
+
+    /**
+     * Registers a callback invoked once the tasks moved to new owners, after a new view is installed or a new task
+     * assignment took effect.
+     *
+     * @param  listener  the callback
+     */
+    public void addOwnersListener(final Runnable listener) {
+        this.ownersListeners.add(Preconditions.checkNotNull(listener, "listener"));
+    }
+
+    /**
+     * Invoked by the membership manager after a new view is installed, and by the task partitioner when it moves tasks
+     * within a view.
+     */
+    public void ownersChanged() {
+        for (Runnable listener : this.ownersListeners) {
+            try {
+                listener.run();
+            } catch (final RuntimeException e) {
+                LOG.error("Schedule state owners listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Merges the fire times broadcast by the owner of the tasks.
+     *
+     * @param  sender  the address of the owner
+     * @param  update  the fire times
+     */
+    public void merge(final NodeAddress sender, final ScheduleStateUpdate update) {
+        final String owner = String.valueOf(sender);
+        for (int i = 0; i < update.size(); i++) {
+            this.update(update.getTaskName(i),
+                new ScheduleState(update.getLastFireTime(i), update.getNextFireTime(i), owner));
+        }
+    }
+
+    /**
+     * Writes the fire times of every task, to be read by {@link #readState(InputStream)} on a joining node.
+     *
+     * @param   output  the stream to write to
+     *
+     * @throws  IOException  if an I/O error occurs
+     */
+    public void writeState(final OutputStream output) throws IOException {
+        final Map<String, ScheduleState> snapshot = new HashMap<>(this.states);
+        final DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(snapshot.size());
+        for (Map.Entry<String, ScheduleState> entry : snapshot.entrySet()) {
+            data.writeUTF(entry.getKey());
+            data.writeLong(entry.getValue().lastFireTime);
+            data.writeLong(entry.getValue().nextFireTime);
+            data.writeUTF(entry.getValue().owner);
+        }
+
+        data.flush();
+    }
+
+    /**
+     * Reads the fire times written by {@link #writeState(OutputStream)}.
+     *
+     * @param   input  the stream to read from
+     *
+     * @throws  IOException  if an I/O error occurs
+     */
+    public void readState(final InputStream input) throws IOException {
+        final DataInputStream data = new DataInputStream(input);
+        final int size = data.readInt();
+        for (int i = 0; i < size; i++) {
+            final String taskName = data.readUTF();
+            this.update(taskName, new ScheduleState(data.readLong(), data.readLong(), data.readUTF()));
+        }
+
+        LOG.info("Received the fire times of {} tasks", size);
+    }
+
+    /**
+     * Stops broadcasting fire times.
+     */
+    @Stop(priority = 140)
+    public void stop() {
+        this.broadcaster.shutdownNow();
+    }
+
+    private boolean update(final String taskName, final ScheduleState state) {
+        while (true) {
+            final ScheduleState current = this.states.get(taskName);
+            if (current == null) {
+                if (this.states.putIfAbsent(taskName, state) == null) {
+                    return true;
+                }
+            } else if (current.lastFireTime >= state.lastFireTime) {
+                return false;
+            } else if (this.states.replace(taskName, current, state)) {
+                return true;
+            }
+        }
+    }
+
+    private void flush() {
+
+        // firings recorded from now on schedule another flush
+        this.flushScheduled.set(false);
+
+        final int size = this.pending.size();
+        final String[] taskNames = new String[size];
+        final long[] lastFireTimes = new long[size];
+        final long[] nextFireTimes = new long[size];
+        int count = 0;
+        for (Map.Entry<String, ScheduleState> entry : this.pending.entrySet()) {
+            if (count == size) {
+                break;
+            }
+
+            if (this.pending.remove(entry.getKey(), entry.getValue())) {
+                taskNames[count] = entry.getKey();
+                lastFireTimes[count] = entry.getValue().lastFireTime;
+                nextFireTimes[count] = entry.getValue().nextFireTime;
+                count++;
+            }
+        }
+
+        final MembershipManager manager = this.membershipManager.get();
+        if ((count == 0) || (manager.getMembers().size() < 2)) {
+
+            // nobody to tell, a joining node receives the whole table
+            return;
+        }
+
+        try {
+            manager.broadcast(new ScheduleStateUpdate(Arrays.copyOf(taskNames, count),
+                    Arrays.copyOf(lastFireTimes, count), Arrays.copyOf(nextFireTimes, count)));
+        } catch (final RuntimeException e) {
+            LOG.warn("Unable to broadcast the fire times of {} tasks", count, e);
+        }
+    }
+
+    /**
+     * Immutable fire times of a task.
+     */
+    private static final class ScheduleState {
+
+        private final long lastFireTime;
+        private final long nextFireTime;
+        private final String owner;
+
+        private ScheduleState(final long lastFireTime, final long nextFireTime, final String owner) {
+            this.lastFireTime = lastFireTime;
+            this.nextFireTime = nextFireTime;
+            this.owner = owner;
+        }
+    }
+}
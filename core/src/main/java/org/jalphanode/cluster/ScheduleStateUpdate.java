@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+
+/**
+ * Fire times of tasks broadcast by their owner, see {@link ScheduleStateRegistry}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public final class ScheduleStateUpdate implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] taskNames;
+    private final long[] lastFireTimes;
+    private final long[] nextFireTimes;
+
+    /**
+     * Creates a new update.
+     *
+     * @param  taskNames      the task names
+     * @param  lastFireTimes  the last fire time of each task, in ms since the epoch
+     * @param  nextFireTimes  the next fire time of each task, in ms since the epoch
+     */
+    public ScheduleStateUpdate(final String[] taskNames, final long[] lastFireTimes, final long[] nextFireTimes) {
+        this.taskNames = Preconditions.checkNotNull(taskNames, "taskNames");
+        this.lastFireTimes = Preconditions.checkNotNull(lastFireTimes, "lastFireTimes");
+        this.nextFireTimes = Preconditions.checkNotNull(nextFireTimes, "nextFireTimes");
+        Preconditions.checkArgument((taskNames.length == lastFireTimes.length)
+                && (taskNames.length == nextFireTimes.length), "arrays must have the same length");
+    }
+
+    /**
+     * Gets the number of tasks updated.
+     *
+     * @return  the number of tasks
+     */
+    public int size() {
+        return this.taskNames.length;
+    }
+
+    /**
+     * Gets the name of a task.
+     *
+     * @param   index  the index of the task
+     *
+     * @return  the task name
+     */
+    public String getTaskName(final int index) {
+        return this.taskNames[index];
+    }
+
+    /**
+     * Gets the last fire time of a task.
+     *
+     * @param   index  the index of the task
+     *
+     * @return  the last fire time in ms since the epoch
+     */
+    public long getLastFireTime(final int index) {
+        return this.lastFireTimes[index];
+    }
+
+    /**
+     * Gets the next fire time of a task.
+     *
+     * @param   index  the index of the task
+     *
+     * @return  the next fire time in ms since the epoch
+     */
+    public long getNextFireTime(final int index) {
+        return this.nextFireTimes[index];
+    }
+}
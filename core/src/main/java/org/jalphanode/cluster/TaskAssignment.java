@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The owner of each task, computed by the master node and broadcast to the cluster by
+ * {@link WeightedTaskPartitioner}.
+ *
+ * <p>Every node switches to the assignment at the same effective time, so the previous and the new owner of a task
+ * never run it together. The version carries the id of the view in its high 32 bits and a sequence number within the
+ * view in its low 32 bits, so it only grows.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public final class TaskAssignment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    private final long effectiveTime;
+    private final HashMap<String, NodeAddress> owners;
+
+    /**
+     * Creates a new assignment.
+     *
+     * @param  version        the version of the assignment
+     * @param  effectiveTime  the time the assignment takes effect, in ms since the epoch
+     * @param  owners         the owner of each task by task name
+     */
+    public TaskAssignment(final long version, final long effectiveTime, final Map<String, NodeAddress> owners) {
+        this.version = version;
+        this.effectiveTime = effectiveTime;
+        this.owners = new HashMap<>(Preconditions.checkNotNull(owners, "owners"));
+    }
+
+    /**
+     * Gets the version of the assignment.
+     *
+     * @return  the view id in the high 32 bits and the sequence number within the view in the low 32 bits
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Gets the time the assignment takes effect.
+     *
+     * @return  the effective time in ms since the epoch
+     */
+    public long getEffectiveTime() {
+        return this.effectiveTime;
+    }
+
+    /**
+     * Gets the owner of each task.
+     *
+     * @return  the owners by task name
+     */
+    public Map<String, NodeAddress> getOwners() {
+        return Collections.unmodifiableMap(this.owners);
+    }
+}
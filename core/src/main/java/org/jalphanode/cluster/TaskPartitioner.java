@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.util.List;
+
+/**
+ * Decides which member of the cluster runs each task.
+ *
+ * <p>Views are installed sequentially by the membership manager, while owners are looked up by the scheduler on every
+ * firing, so implementations should make {@link #getOwner(String)} cheap and lock-free.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public interface TaskPartitioner {
+
+    /**
+     * Assigns the tasks to the members of a new view.
+     *
+     * @param  members        the members of the view
+     * @param  masterAddress  the master node of the view
+     */
+    void viewAccepted(List<NodeAddress> members, NodeAddress masterAddress);
+
+    /**
+     * Gets the member running the specified task.
+     *
+     * @param   taskName  the task name
+     *
+     * @return  the address of the owner, or null before the first view is installed
+     */
+    NodeAddress getOwner(String taskName);
+
+    /**
+     * Gets the version of the assignment currently in effect, for partitioners moving tasks between members without a
+     * view change. Versions carry the id of the view they were computed in in the high 32 bits, see
+     * {@link MembershipManager#getFencingToken()}.
+     *
+     * @return  the assignment version, or 0 if owners only change with the view
+     */
+    default long getAssignmentVersion() {
+        return 0;
+    }
+
+    /**
+     * Invoked when a message broadcast by a member of the cluster is received. Messages are ignored by default.
+     *
+     * @param  sender   the address of the member that sent the message
+     * @param  message  the message
+     */
+    default void messageReceived(final NodeAddress sender, final Object message) {
+        // messages are not used by default
+    }
+}
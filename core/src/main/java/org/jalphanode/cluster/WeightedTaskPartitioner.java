@@ -0,0 +1,546 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import org.jalphanode.annotation.Start;
+import org.jalphanode.annotation.Stop;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.OverlapPolicy;
+import org.jalphanode.config.TaskConfig;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedAttribute;
+import org.jalphanode.scheduler.EpochScheduleIteratorAdapter;
+import org.jalphanode.stats.TaskStatistics;
+import org.jalphanode.stats.TaskStatisticsRegistry;
+import org.jalphanode.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Places the tasks on the members in proportion to their spare capacity.
+ *
+ * <p>Every {@code loadReportInterval} ms (5000 by default) each node broadcasts a {@link NodeLoad}: its capacity, the
+ * {@code capacity} membership property defaulting to the number of processors, the fraction of it spent running tasks
+ * and the mean runtime of the tasks it ran. The master node estimates the load of each task, its mean runtime times
+ * its firing rate, then assigns the heaviest tasks first, each to the member that would be the least loaded relative
+ * to its spare capacity, and broadcasts the result as a {@link TaskAssignment} whenever it changes.</p>
+ *
+ * <p>Assignments take effect {@code assignmentDelay} ms (1000 by default) after the master computed them, at the same
+ * time on every node, the master included, as long as the clocks of the nodes are in sync, so the previous and the new
+ * owner of a task do not run it together. Each assignment gets a greater version, exposed to fencing through
+ * {@link #getAssignmentVersion()}, and assignments computed in an older view are dropped.</p>
+ *
+ * <p>The spare capacity of a member only discounts the utilisation not explained by the tasks it owns, so moving tasks
+ * around does not feed back into the next placement. Until the master publishes an assignment, and for the tasks of
+ * members that left, owners are elected by the {@link MasterNodeElectionPolicy}, the same way on every node.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@MBean(objectName = WeightedTaskPartitioner.OBJECT_NAME,
+    description = "Places the tasks on the members in proportion to their spare capacity")
+public class WeightedTaskPartitioner implements TaskPartitioner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WeightedTaskPartitioner.class);
+
+    public static final String OBJECT_NAME = "TaskPlacement";
+
+    protected static final String CAPACITY_PROPERTY = "capacity";
+
+    protected static final String LOAD_REPORT_INTERVAL_PROPERTY = "loadReportInterval";
+    protected static final long DEFAULT_LOAD_REPORT_INTERVAL = 5000;
+
+    protected static final String ASSIGNMENT_DELAY_PROPERTY = "assignmentDelay";
+    protected static final long DEFAULT_ASSIGNMENT_DELAY = 1000;
+
+    private static final double MIN_SPARE_RATIO = 0.1;
+    private static final double MOVE_THRESHOLD = 0.25;
+    private static final double MIN_TASK_LOAD = 1e-6;
+    private static final int RATE_SAMPLES = 16;
+
+    private final JAlphaNodeConfig config;
+    private final MasterNodeElectionPolicy electionPolicy;
+    private final Provider<MembershipManager> membershipManager;
+    private final TaskStatisticsRegistry statisticsRegistry;
+    private final ScheduleStateRegistry scheduleStates;
+    private final int capacity;
+    private final long loadReportInterval;
+    private final long assignmentDelay;
+
+    private final Lock lock = new ReentrantLock();
+    private final ConcurrentMap<NodeAddress, NodeLoad> loads = new ConcurrentHashMap<>();
+
+    // reports the load and applies the assignments, off the thread delivering the views and messages
+    private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(
+            DaemonThreadFactory.newInstance("load-reporter", Thread.NORM_PRIORITY));
+
+    private volatile Placement placement = new Placement(ImmutableList.<NodeAddress>of(), null,
+            ImmutableMap.<String, NodeAddress>of(), ImmutableMap.<String, NodeAddress>of(), 0);
+    private volatile double utilisation;
+
+    // guarded by lock
+    private TaskAssignment pending;
+    private long lastVersion;
+
+    private long lastReportTime;
+    private long lastBusyTime;
+
+    /**
+     * Creates a new partitioner.
+     *
+     * @param  config              configuration
+     * @param  electionPolicy      elects the owners of the tasks not assigned by the master node
+     * @param  membershipManager   broadcasts the load reports and assignments
+     * @param  statisticsRegistry  the statistics of the tasks run by the node
+     * @param  scheduleStates      notified when tasks move to new owners
+     */
+    @Inject
+    public WeightedTaskPartitioner(final JAlphaNodeConfig config, final MasterNodeElectionPolicy electionPolicy,
+            final Provider<MembershipManager> membershipManager, final TaskStatisticsRegistry statisticsRegistry,
+            final ScheduleStateRegistry scheduleStates) {
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.electionPolicy = Preconditions.checkNotNull(electionPolicy, "electionPolicy");
+        this.membershipManager = Preconditions.checkNotNull(membershipManager, "membershipManager");
+        this.statisticsRegistry = Preconditions.checkNotNull(statisticsRegistry, "statisticsRegistry");
+        this.scheduleStates = Preconditions.checkNotNull(scheduleStates, "scheduleStates");
+        this.capacity = config.getMembership().getProperties().getIntProperty(CAPACITY_PROPERTY,
+                Runtime.getRuntime().availableProcessors());
+        this.loadReportInterval = config.getMembership().getProperties().getLongProperty(
+                LOAD_REPORT_INTERVAL_PROPERTY, DEFAULT_LOAD_REPORT_INTERVAL);
+        this.assignmentDelay = config.getMembership().getProperties().getLongProperty(ASSIGNMENT_DELAY_PROPERTY,
+                DEFAULT_ASSIGNMENT_DELAY);
+
+        Preconditions.checkArgument(this.capacity > 0, "capacity must be greater than 0");
+        Preconditions.checkArgument(this.loadReportInterval > 0, "loadReportInterval must be greater than 0");
+        Preconditions.checkArgument(this.assignmentDelay >= 0, "assignmentDelay must not be negative");
+    }
+
+    /**
+     * Starts reporting the load of the node.
+     */
+    @Start(priority = 110)
+    public void start() {
+        this.lastReportTime = System.nanoTime();
+        this.reporter.scheduleWithFixedDelay(this::report, 0, this.loadReportInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops reporting the load of the node.
+     */
+    @Stop(priority = 140)
+    public void stop() {
+        this.reporter.shutdownNow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void viewAccepted(final List<NodeAddress> members, final NodeAddress masterAddress) {
+        Preconditions.checkNotNull(members, "members");
+
+        this.lock.lock();
+        try {
+            this.loads.keySet().retainAll(members);
+
+            // assignments of the previous view never take effect
+            this.pending = null;
+
+            final Placement current = this.placement;
+            this.placement = this.newPlacement(members, masterAddress, current.assigned, current.version);
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (this.membershipManager.get().isMasterNode()) {
+            this.submit(this::rebalance, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NodeAddress getOwner(final String taskName) {
+        final Placement current = this.placement;
+        if (current.members.isEmpty()) {
+            return null;
+        }
+
+        final NodeAddress owner = current.owners.get(taskName);
+        return (owner != null) ? owner : this.electionPolicy.elect(taskName, current.members);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void messageReceived(final NodeAddress sender, final Object message) {
+        if (message instanceof NodeLoad) {
+            if (this.placement.members.contains(sender)) {
+                this.loads.put(sender, (NodeLoad) message);
+            }
+        } else if (message instanceof TaskAssignment) {
+            final TaskAssignment assignment = (TaskAssignment) message;
+
+            this.lock.lock();
+            try {
+                final Placement current = this.placement;
+                if (!sender.equals(current.master)
+                        || ((assignment.getVersion() >>> 32) != this.membershipManager.get().getViewId())
+                        || (assignment.getVersion() <= current.version)
+                        || ((this.pending != null) && (assignment.getVersion() <= this.pending.getVersion()))) {
+                    return;
+                }
+
+                this.pending = assignment;
+            } finally {
+                this.lock.unlock();
+            }
+
+            this.submit(() -> this.apply(assignment),
+                Math.max(0, assignment.getEffectiveTime() - System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ManagedAttribute(name = "Assignment version", description = "Returns the version of the assignment in effect")
+    public long getAssignmentVersion() {
+        return this.placement.version;
+    }
+
+    @ManagedAttribute(name = "Assignments", description = "Returns the node running each task")
+    public Map<String, String> getAssignments() {
+        final Map<String, String> assignments = new TreeMap<>();
+        this.placement.owners.forEach((taskName, owner) -> assignments.put(taskName, owner.toString()));
+
+        return assignments;
+    }
+
+    @ManagedAttribute(name = "Capacity", description = "Returns the number of tasks the node can run at the same time")
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    @ManagedAttribute(name = "Utilisation",
+        description = "Returns the fraction of the capacity spent running tasks during the last report interval")
+    public double getUtilisation() {
+        return this.utilisation;
+    }
+
+    /**
+     * Broadcasts the load of the node and, on the master node, reassigns the tasks.
+     */
+    protected void report() {
+        try {
+            final MembershipManager manager = this.membershipManager.get();
+            if (manager.getNodeAddress() != null) {
+                manager.broadcast(this.measure());
+
+                if (manager.isMasterNode()) {
+                    this.rebalance();
+                }
+            }
+        } catch (final RuntimeException e) {
+            LOG.warn("Unable to report the load of the node", e);
+        }
+    }
+
+    /**
+     * Assigns the tasks to the members according to the last load reports and broadcasts the assignment if it
+     * changed. The master node switches to it like every other node, once it takes effect.
+     */
+    protected void rebalance() {
+        final TaskAssignment assignment;
+
+        this.lock.lock();
+        try {
+            final Placement current = this.placement;
+            if (current.members.isEmpty()) {
+                return;
+            }
+
+            final long now = System.currentTimeMillis();
+            final Map<String, Double> taskLoads = this.estimateTaskLoads(now);
+            final Map<String, NodeAddress> assigned = assign(taskLoads, current.members,
+                    this.spareCapacities(current, taskLoads), current.owners);
+            if (assigned.equals((this.pending != null) ? this.pending.getOwners() : current.assigned)) {
+                return;
+            }
+
+            this.lastVersion = Math.max(Math.max(this.lastVersion, current.version),
+                    this.membershipManager.get().getViewId() << 32) + 1;
+            assignment = new TaskAssignment(this.lastVersion, now + this.assignmentDelay, assigned);
+        } finally {
+            this.lock.unlock();
+        }
+
+        LOG.debug("Tasks reassigned: {}", assignment.getOwners());
+
+        try {
+            this.membershipManager.get().broadcast(assignment);
+        } catch (final RuntimeException e) {
+            LOG.warn("Unable to broadcast the task assignment", e);
+        }
+    }
+
+    /**
+     * Assigns the heaviest tasks first, each to the member that would be the least loaded relative to its spare
+     * capacity. A task stays on its current owner unless that leaves the owner more than 25% more loaded than the
+     * best member, so small fluctuations of the reported loads do not move tasks back and forth.
+     *
+     * @param   taskLoads        the load of each task
+     * @param   members          the members of the cluster
+     * @param   spareCapacities  the spare capacity of each member
+     * @param   currentOwners    the current owner of each task
+     *
+     * @return  the owner of each task
+     */
+    static Map<String, NodeAddress> assign(final Map<String, Double> taskLoads, final List<NodeAddress> members,
+            final double[] spareCapacities, final Map<String, NodeAddress> currentOwners) {
+        final List<Map.Entry<String, Double>> tasks = new ArrayList<>(taskLoads.entrySet());
+        tasks.sort((a, b) -> {
+            final int result = Double.compare(b.getValue(), a.getValue());
+            return (result != 0) ? result : a.getKey().compareTo(b.getKey());
+        });
+
+        final double[] assignedLoads = new double[members.size()];
+        final Map<String, NodeAddress> owners = new HashMap<>();
+        for (final Map.Entry<String, Double> task : tasks) {
+            int owner = 0;
+            double minLoad = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < assignedLoads.length; i++) {
+                final double load = (assignedLoads[i] + task.getValue()) / spareCapacities[i];
+                if (load < minLoad) {
+                    minLoad = load;
+                    owner = i;
+                }
+            }
+
+            final int currentOwner = members.indexOf(currentOwners.get(task.getKey()));
+            if ((currentOwner >= 0)
+                    && (((assignedLoads[currentOwner] + task.getValue()) / spareCapacities[currentOwner])
+                        <= (minLoad * (1 + MOVE_THRESHOLD)))) {
+                owner = currentOwner;
+            }
+
+            assignedLoads[owner] += task.getValue();
+            owners.put(task.getKey(), members.get(owner));
+        }
+
+        return owners;
+    }
+
+    /**
+     * Switches to an assignment once it takes effect, unless a newer assignment or view superseded it, then lets the
+     * new owners catch up the firings missed by the previous ones.
+     */
+    private void apply(final TaskAssignment assignment) {
+        this.lock.lock();
+        try {
+            if (this.pending != assignment) {
+                return;
+            }
+
+            final Placement current = this.placement;
+            this.placement = this.newPlacement(current.members, current.master, assignment.getOwners(),
+                    assignment.getVersion());
+            this.pending = null;
+        } finally {
+            this.lock.unlock();
+        }
+
+        LOG.debug("Task assignment {} took effect", assignment.getVersion());
+
+        this.scheduleStates.ownersChanged();
+    }
+
+    private void submit(final Runnable command, final long delay) {
+        try {
+            this.reporter.schedule(command, delay, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("Partitioner stopped, dropping task", e);
+        }
+    }
+
+    private NodeLoad measure() {
+        final Map<String, Double> meanRuntimes = new HashMap<>();
+        long busyTime = 0;
+        for (final TaskConfig task : this.config.getTasks().getTask()) {
+            final TaskStatistics statistics = this.statisticsRegistry.getStatistics(task.getTaskName());
+            busyTime += statistics.getTotalDuration();
+            if (statistics.getRunCount() > 0) {
+                meanRuntimes.put(task.getTaskName(), statistics.getMeanDuration());
+            }
+        }
+
+        final long now = System.nanoTime();
+        final double elapsed = (double) (now - this.lastReportTime) * this.capacity;
+        if (elapsed > 0) {
+            this.utilisation = Math.min(1, Math.max(0, busyTime - this.lastBusyTime) / elapsed);
+        }
+
+        this.lastReportTime = now;
+        this.lastBusyTime = busyTime;
+
+        return new NodeLoad(this.capacity, this.utilisation, meanRuntimes);
+    }
+
+    /**
+     * Estimates the number of threads each task keeps busy: its mean runtime times its firing rate. Tasks that never
+     * ran weigh as much as the average task.
+     */
+    private Map<String, Double> estimateTaskLoads(final long now) {
+        final Map<String, double[]> runtimes = new HashMap<>();
+        for (final NodeLoad load : this.loads.values()) {
+            load.getMeanRuntimes().forEach((taskName, meanRuntime) -> {
+                final double[] runtime = runtimes.computeIfAbsent(taskName, name -> new double[2]);
+                runtime[0] += meanRuntime;
+                runtime[1]++;
+            });
+        }
+
+        final Map<String, Double> taskLoads = new LinkedHashMap<>();
+        final long[] fireTimes = new long[RATE_SAMPLES];
+        double knownLoad = 0;
+        int known = 0;
+        for (final TaskConfig task : this.config.getTasks().getTask()) {
+            final double[] runtime = runtimes.get(task.getTaskName());
+            if (runtime == null) {
+                taskLoads.put(task.getTaskName(), Double.NaN);
+                continue;
+            }
+
+            final int count = EpochScheduleIteratorAdapter.adapt(task.getScheduleIterator()).nextEpochMillis(now,
+                    fireTimes);
+            final double rate = (count == 0) ? 0 : (count / (double) Math.max(1, fireTimes[count - 1] - now));
+            final int parallelism = (task.getOverlapPolicy() == OverlapPolicy.CONCURRENT) ? task.getMaxConcurrent()
+                                                                                          : 1;
+            final double load = Math.max(MIN_TASK_LOAD, Math.min(parallelism, (runtime[0] / runtime[1]) * rate));
+
+            taskLoads.put(task.getTaskName(), load);
+            knownLoad += load;
+            known++;
+        }
+
+        final double defaultLoad = (known == 0) ? 1 : (knownLoad / known);
+        taskLoads.replaceAll((taskName, load) -> Double.isNaN(load) ? defaultLoad : load);
+
+        return taskLoads;
+    }
+
+    /**
+     * The capacity of each member less the utilisation not explained by the tasks it owns. Members that did not
+     * report their load yet get the average spare capacity.
+     */
+    private double[] spareCapacities(final Placement current, final Map<String, Double> taskLoads) {
+        final Map<NodeAddress, Double> ownedLoads = new HashMap<>();
+        current.owners.forEach((taskName, owner) -> ownedLoads.merge(owner, taskLoads.get(taskName), Double::sum));
+
+        final double[] spareCapacities = new double[current.members.size()];
+        double knownSpare = 0;
+        int known = 0;
+        for (int i = 0; i < spareCapacities.length; i++) {
+            final NodeAddress member = current.members.get(i);
+            final NodeLoad load = this.loads.get(member);
+            if (load == null) {
+                spareCapacities[i] = Double.NaN;
+                continue;
+            }
+
+            final double background = Math.max(0,
+                    (load.getUtilisation() * load.getCapacity()) - ownedLoads.getOrDefault(member, 0.0));
+            spareCapacities[i] = Math.max(load.getCapacity() - background, MIN_SPARE_RATIO * load.getCapacity());
+            knownSpare += spareCapacities[i];
+            known++;
+        }
+
+        final double defaultSpare = (known == 0) ? 1 : (knownSpare / known);
+        for (int i = 0; i < spareCapacities.length; i++) {
+            if (Double.isNaN(spareCapacities[i])) {
+                spareCapacities[i] = defaultSpare;
+            }
+        }
+
+        return spareCapacities;
+    }
+
+    private Placement newPlacement(final List<NodeAddress> members, final NodeAddress master,
+            final Map<String, NodeAddress> assigned, final long version) {
+        final Map<String, NodeAddress> owners = new HashMap<>();
+        if (!members.isEmpty()) {
+            final Set<NodeAddress> memberSet = new HashSet<>(members);
+            for (final TaskConfig task : this.config.getTasks().getTask()) {
+                NodeAddress owner = assigned.get(task.getTaskName());
+                if ((owner == null) || !memberSet.contains(owner)) {
+                    owner = this.electionPolicy.elect(task.getTaskName(), members);
+                }
+
+                owners.put(task.getTaskName(), owner);
+            }
+        }
+
+        return new Placement(ImmutableList.copyOf(members), master, ImmutableMap.copyOf(assigned),
+                Collections.unmodifiableMap(owners), version);
+    }
+
+    /**
+     * Immutable snapshot of the members, of the owner of each task and of the version of the assignment.
+     */
+    private static final class Placement {
+
+        private final List<NodeAddress> members;
+        private final NodeAddress master;
+        private final Map<String, NodeAddress> assigned;
+        private final Map<String, NodeAddress> owners;
+        private final long version;
+
+        private Placement(final List<NodeAddress> members, final NodeAddress master,
+                final Map<String, NodeAddress> assigned, final Map<String, NodeAddress> owners, final long version) {
+            this.members = members;
+            this.master = master;
+            this.assigned = assigned;
+            this.owners = owners;
+            this.version = version;
+        }
+    }
+}
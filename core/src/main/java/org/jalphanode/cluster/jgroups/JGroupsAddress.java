@@ -21,13 +21,17 @@ import org.jgroups.Address;
 
 import com.google.common.base.Objects;
 
+import java.io.Serializable;
+
 /**
  * An encapsulation of a JGroups Address.
  *
  * @author   ribeirux
  * @version  $Revision: 274 $
  */
-public class JGroupsAddress implements NodeAddress {
+public class JGroupsAddress implements NodeAddress, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Address address;
 
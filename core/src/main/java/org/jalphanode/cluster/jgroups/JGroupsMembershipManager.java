@@ -22,6 +22,9 @@ import org.jalphanode.cluster.MasterNodeElectionPolicy;
 import org.jalphanode.cluster.MembershipException;
 import org.jalphanode.cluster.MembershipManager;
 import org.jalphanode.cluster.NodeAddress;
+import org.jalphanode.cluster.ScheduleStateRegistry;
+import org.jalphanode.cluster.ScheduleStateUpdate;
+import org.jalphanode.cluster.TaskPartitioner;
 import org.jalphanode.config.JAlphaNodeConfig;
 import org.jalphanode.config.MembershipConfig;
 import org.jalphanode.jmx.annotation.MBean;
@@ -35,8 +38,10 @@ import org.jgroups.View;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -57,18 +62,24 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
 
     public static final String OBJECT_NAME = "MembershipManager";
 
+    protected static final String STATE_TRANSFER_TIMEOUT_PROPERTY = "stateTransferTimeout";
+    protected static final long DEFAULT_STATE_TRANSFER_TIMEOUT = 5000;
+
     private final CountDownLatch connectedLatch = new CountDownLatch(1);
     private final Lock lock = new ReentrantLock();
 
     private final JAlphaNodeConfig config;
     private final Channel channel;
     private final MasterNodeElectionPolicy masterNodeElectionPolicy;
+    private final TaskPartitioner taskPartitioner;
+    private final ScheduleStateRegistry scheduleStates;
     private final Notifier notifier;
 
     private volatile boolean master = false;
     private volatile NodeAddress address;
     private volatile NodeAddress masterAddress;
     private volatile List<NodeAddress> members = Collections.emptyList();
+    private volatile long viewId;
 
     /**
      * Creates a new membership manager.
@@ -76,15 +87,20 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
      * @param  config                    configuration
      * @param  channel                   jgroups channel
      * @param  masterNodeElectionPolicy  master node election policy
+     * @param  taskPartitioner           assigns the tasks to the members
+     * @param  scheduleStates            the fire times handed over between the owners of the tasks
      * @param  notifier                  notifier instance
      */
     @Inject
     public JGroupsMembershipManager(final JAlphaNodeConfig config, final Channel channel,
-            final MasterNodeElectionPolicy masterNodeElectionPolicy, final Notifier notifier) {
+            final MasterNodeElectionPolicy masterNodeElectionPolicy, final TaskPartitioner taskPartitioner,
+            final ScheduleStateRegistry scheduleStates, final Notifier notifier) {
         this.config = Preconditions.checkNotNull(config, "config");
         this.channel = Preconditions.checkNotNull(channel);
         this.masterNodeElectionPolicy = Preconditions.checkNotNull(masterNodeElectionPolicy,
                 "masterNodeElectionPolicy");
+        this.taskPartitioner = Preconditions.checkNotNull(taskPartitioner, "taskPartitioner");
+        this.scheduleStates = Preconditions.checkNotNull(scheduleStates, "scheduleStates");
         this.notifier = Preconditions.checkNotNull(notifier, "notifier");
     }
 
@@ -131,6 +147,47 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
         return this.members;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTaskOwner(final String taskName) {
+        final NodeAddress owner = this.taskPartitioner.getOwner(taskName);
+        return (owner != null) && owner.equals(this.address);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ManagedAttribute(name = "View id", description = "Returns the id of the current view")
+    public long getViewId() {
+        return this.viewId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @ManagedAttribute(name = "Fencing token", description = "Returns the fencing token of the executions dispatched now")
+    public long getFencingToken() {
+        return Math.max(this.viewId << 32, this.taskPartitioner.getAssignmentVersion());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void broadcast(final Serializable message) {
+        Preconditions.checkNotNull(message, "message");
+
+        try {
+            this.channel.send(new Message(null, message));
+        } catch (final Exception e) {
+            throw new MembershipException("Unable to broadcast message", e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -152,6 +209,7 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
             try {
                 this.channel.connect(this.getClusterName());
                 this.connectedLatch.await();
+                this.fetchState();
             } catch (final InterruptedException e) {
                 LOG.error("Connection thread interrupted while waiting for members to be set", e);
 
@@ -213,11 +271,18 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
 
             this.members = this.fromJGroupsAddressList(newMembers);
 
+            // executions dispatched from now on carry the new fencing token
+            this.viewId = newView.getViewId().getId();
+
             // the list of members is immutable, thus, thread safe
             this.masterAddress = this.masterNodeElectionPolicy.elect(this.members);
 
             this.master = this.masterAddress.equals(this.address);
 
+            // tasks move to their new owners before listeners learn about the view
+            this.taskPartitioner.viewAccepted(this.members, this.masterAddress);
+            this.scheduleStates.ownersChanged();
+
             // wake up the start thread
             if (oldMembers.isEmpty()) {
                 this.connectedLatch.countDown();
@@ -243,7 +308,20 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
      */
     @Override
     public void receive(final Message msg) {
-        // this functionality is not used.
+        final Object message;
+        try {
+            message = msg.getObject();
+        } catch (final RuntimeException e) {
+            LOG.warn("Discarding unreadable message from {}", msg.getSrc(), e);
+            return;
+        }
+
+        final NodeAddress sender = new JGroupsAddress(msg.getSrc());
+        if (message instanceof ScheduleStateUpdate) {
+            this.scheduleStates.merge(sender, (ScheduleStateUpdate) message);
+        } else {
+            this.taskPartitioner.messageReceived(sender, message);
+        }
     }
 
     /**
@@ -266,16 +344,35 @@ public class JGroupsMembershipManager implements MembershipManager, Receiver {
      * {@inheritDoc}
      */
     @Override
-    public void getState(final OutputStream output) {
-        throw new UnsupportedOperationException("This functionality is not supported");
+    public void getState(final OutputStream output) throws IOException {
+        this.scheduleStates.writeState(output);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void setState(final InputStream input) {
-        throw new UnsupportedOperationException("This functionality is not supported");
+    public void setState(final InputStream input) throws IOException {
+        this.scheduleStates.readState(input);
+    }
+
+    /**
+     * Fetches the fire times of the tasks from the coordinator, unless the current node is alone.
+     */
+    private void fetchState() {
+        if (this.members.size() < 2) {
+            return;
+        }
+
+        final long timeout = this.config.getMembership().getProperties().getLongProperty(
+                STATE_TRANSFER_TIMEOUT_PROPERTY, DEFAULT_STATE_TRANSFER_TIMEOUT);
+        try {
+            this.channel.getState(null, timeout);
+        } catch (final Exception e) {
+
+            // without the state, tasks due during a failover are not caught up
+            LOG.warn("Unable to fetch the fire times of the tasks", e);
+        }
     }
 
     private List<NodeAddress> fromJGroupsAddressList(final Iterable<Address> list) {
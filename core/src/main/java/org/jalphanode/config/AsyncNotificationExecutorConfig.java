@@ -30,4 +30,10 @@ public interface AsyncNotificationExecutorConfig extends PropertiesContainerConf
      */
     Integer getPoolSize();
 
+    /**
+     * Gets the executor delivering asynchronous notifications.
+     *
+     * @return  the executor mode
+     */
+    NotificationExecutorMode getExecutor();
 }
@@ -36,15 +36,24 @@ public class AsyncNotificationExecutorType extends AbstractPropertiesContainer
      */
     public static final int DEFAULT_POOL_SIZE = 10;
 
+    /**
+     * Default executor.
+     */
+    public static final NotificationExecutorMode DEFAULT_EXECUTOR = NotificationExecutorMode.THREAD_POOL;
+
     @XmlAttribute
     private Integer poolSize;
 
+    @XmlAttribute
+    private NotificationExecutorMode executor;
+
     /**
      * Creates a new async executor with default configuration.
      */
     public AsyncNotificationExecutorType() {
         super();
         this.poolSize = AsyncNotificationExecutorType.DEFAULT_POOL_SIZE;
+        this.executor = AsyncNotificationExecutorType.DEFAULT_EXECUTOR;
     }
 
     /**
@@ -66,4 +75,23 @@ public class AsyncNotificationExecutorType extends AbstractPropertiesContainer
         this.poolSize = poolSize;
     }
 
+    /**
+     * Gets the executor property.
+     *
+     * @return  the executor property
+     */
+    @Override
+    public NotificationExecutorMode getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Sets the executor property.
+     *
+     * @param  executor  the executor to set
+     */
+    public void setExecutor(final NotificationExecutorMode executor) {
+        this.executor = executor;
+    }
+
 }
@@ -17,6 +17,8 @@ package org.jalphanode.config;
 
 import com.google.common.base.Preconditions;
 import org.jalphanode.scheduler.CronIterator;
+import org.jalphanode.scheduler.FixedDelayIterator;
+import org.jalphanode.scheduler.FixedRateIterator;
 import org.jalphanode.scheduler.ScheduleIterator;
 import org.jalphanode.scheduler.SchedulerParseException;
 
@@ -25,7 +27,8 @@ import java.text.MessageFormat;
 import java.util.TimeZone;
 
 /**
- * Converts a trigger into a Schedule iterator.
+ * Converts a trigger into a Schedule iterator: a {@link CronIterator}, a {@link FixedRateIterator} or a
+ * {@link FixedDelayIterator}.
  *
  * @author   ribeirux
  * @version  $Revision: 118 $
@@ -33,13 +36,25 @@ import java.util.TimeZone;
 public class CronTriggerAdapter extends XmlAdapter<TriggerType, ScheduleIterator> {
 
     @Override
-    public TriggerType marshal(final ScheduleIterator cronIterator) {
-
-        final CronIterator cron = (CronIterator) Preconditions.checkNotNull(cronIterator, "cronIterator");
+    public TriggerType marshal(final ScheduleIterator scheduleIterator) {
+        Preconditions.checkNotNull(scheduleIterator, "scheduleIterator");
 
         final TriggerType triggerType = new TriggerType();
-        triggerType.setExpression(cron.getExpression());
-        triggerType.setTimezone(cron.getTimeZone().getDisplayName());
+        if (scheduleIterator instanceof FixedRateIterator) {
+            final FixedRateIterator fixedRate = (FixedRateIterator) scheduleIterator;
+            triggerType.setExpression(null);
+            triggerType.setTimezone(null);
+            triggerType.setFixedRate(new IntervalType(fixedRate.getPeriod(), fixedRate.getTimeUnit()));
+        } else if (scheduleIterator instanceof FixedDelayIterator) {
+            final FixedDelayIterator fixedDelay = (FixedDelayIterator) scheduleIterator;
+            triggerType.setExpression(null);
+            triggerType.setTimezone(null);
+            triggerType.setFixedDelay(new IntervalType(fixedDelay.getDelay(), fixedDelay.getTimeUnit()));
+        } else {
+            final CronIterator cron = (CronIterator) scheduleIterator;
+            triggerType.setExpression(cron.getExpression());
+            triggerType.setTimezone(cron.getTimeZone().getDisplayName());
+        }
 
         return triggerType;
     }
@@ -68,8 +83,18 @@ public class CronTriggerAdapter extends XmlAdapter<TriggerType, ScheduleIterator
     private static ScheduleIterator unmarshallInternal(final TriggerType triggerType) throws SchedulerParseException {
         Preconditions.checkNotNull(triggerType, "cronExpression");
 
+        final IntervalType fixedRate = triggerType.getFixedRate();
+        if (fixedRate != null) {
+            return new FixedRateIterator(fixedRate.getInterval(), fixedRate.getTimeUnit());
+        }
+
+        final IntervalType fixedDelay = triggerType.getFixedDelay();
+        if (fixedDelay != null) {
+            return new FixedDelayIterator(fixedDelay.getInterval(), fixedDelay.getTimeUnit());
+        }
+
         final TimeZone cronTimezone = TimeZone.getTimeZone(triggerType.getTimezone());
 
-        return new CronIterator(triggerType.getExpression(), cronTimezone);
+        return CronIterator.compile(triggerType.getExpression(), cronTimezone);
     }
 }
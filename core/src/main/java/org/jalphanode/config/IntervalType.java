@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interval trigger configuration, used by fixed-rate and fixed-delay triggers.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "intervalType")
+public class IntervalType {
+
+    private static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+    @XmlAttribute(required = true)
+    private Long interval;
+
+    @XmlAttribute
+    @XmlJavaTypeAdapter(TimeUnitAdapter.class)
+    private TimeUnit timeUnit;
+
+    /**
+     * Creates a new interval with default configuration.
+     */
+    public IntervalType() {
+        this.timeUnit = IntervalType.DEFAULT_TIME_UNIT;
+    }
+
+    /**
+     * Creates a new interval.
+     *
+     * @param  interval  the interval
+     * @param  timeUnit  the time unit of the interval
+     */
+    public IntervalType(final Long interval, final TimeUnit timeUnit) {
+        this.interval = interval;
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * Gets the interval property.
+     *
+     * @return  the interval property
+     */
+    public Long getInterval() {
+        return this.interval;
+    }
+
+    /**
+     * Sets the interval property.
+     *
+     * @param  interval  the interval to set
+     */
+    public void setInterval(final Long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Gets the timeUnit property.
+     *
+     * @return  the timeUnit property
+     */
+    public TimeUnit getTimeUnit() {
+        return this.timeUnit;
+    }
+
+    /**
+     * Sets the timeUnit property.
+     *
+     * @param  timeUnit  the timeUnit to set
+     */
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+}
@@ -16,6 +16,8 @@
 package org.jalphanode.config;
 
 import com.google.common.base.Preconditions;
+import org.jalphanode.scheduler.FixedDelayIterator;
+import org.jalphanode.scheduler.FixedRateIterator;
 import org.jalphanode.scheduler.ScheduleIterator;
 import org.jalphanode.task.Task;
 import org.jalphanode.util.ConfigurationUtils;
@@ -24,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JAlphanode configuration builder.
@@ -226,6 +229,94 @@ public class JAlphaNodeConfigBuilder {
             return this;
         }
 
+        /**
+         * The current task will run at a fixed rate, every {@code period} counted from now.
+         *
+         * @param   period    the period between runs
+         * @param   timeUnit  the time unit of the period, down to {@link TimeUnit#NANOSECONDS}
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withFixedRate(final long period, final TimeUnit timeUnit) {
+            this.taskType.setScheduleIterator(new FixedRateIterator(period, timeUnit));
+            return this;
+        }
+
+        /**
+         * The current task will run with a fixed delay between the end of a run and the start of the next one.
+         *
+         * @param   delay     the delay between runs
+         * @param   timeUnit  the time unit of the delay, down to {@link TimeUnit#NANOSECONDS}
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withFixedDelay(final long delay, final TimeUnit timeUnit) {
+            this.taskType.setScheduleIterator(new FixedDelayIterator(delay, timeUnit));
+            return this;
+        }
+
+        /**
+         * The current task will handle overlapping runs with the specified policy.
+         *
+         * @param   overlapPolicy  overlap policy
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withOverlapPolicy(final OverlapPolicy overlapPolicy) {
+            this.taskType.setOverlapPolicy(overlapPolicy);
+            return this;
+        }
+
+        /**
+         * The current task will allow the specified number of concurrent runs, when its overlap policy is
+         * {@link OverlapPolicy#CONCURRENT}.
+         *
+         * @param   maxConcurrent  maximum concurrent runs
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withMaxConcurrent(final Integer maxConcurrent) {
+            this.taskType.setMaxConcurrent(maxConcurrent);
+            return this;
+        }
+
+        /**
+         * The current task will handle firings later than its misfire threshold with the specified policy.
+         *
+         * @param   misfirePolicy  misfire policy
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withMisfirePolicy(final MisfirePolicy misfirePolicy) {
+            this.taskType.setMisfirePolicy(misfirePolicy);
+            return this;
+        }
+
+        /**
+         * Firings of the current task running later than the specified threshold will be handled as misfires.
+         *
+         * @param   misfireThreshold  misfire threshold in ms
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withMisfireThreshold(final Long misfireThreshold) {
+            this.taskType.setMisfireThreshold(misfireThreshold);
+            return this;
+        }
+
+        /**
+         * The current task will catch up missed fire times no faster than the specified rate, when its misfire policy
+         * is {@link MisfirePolicy#FIRE_ALL_MISSED}.
+         *
+         * @param   catchUpRate  catch-up rate, in firings per second
+         *
+         * @return  the current task builder instance
+         */
+        public TaskBuilder withCatchUpRate(final Integer catchUpRate) {
+            this.taskType.setCatchUpRate(catchUpRate);
+            return this;
+        }
+
         /**
          * The current task will have the specified property.
          *
@@ -264,6 +355,30 @@ public class JAlphaNodeConfigBuilder {
             return this;
         }
 
+        /**
+         * The task scheduler will hold scheduled tasks in the specified timer structure.
+         *
+         * @param   engine  scheduler engine
+         *
+         * @return  the task scheduler builder instance
+         */
+        public TaskSchedulerBuilder withEngine(final SchedulerEngine engine) {
+            this.getConfig().getTaskScheduler().setEngine(engine);
+            return this;
+        }
+
+        /**
+         * The task scheduler will run tasks on the specified executor.
+         *
+         * @param   executor  executor mode
+         *
+         * @return  the task scheduler builder instance
+         */
+        public TaskSchedulerBuilder withExecutor(final SchedulerExecutorMode executor) {
+            this.getConfig().getTaskScheduler().setExecutor(executor);
+            return this;
+        }
+
         /**
          * The task scheduler will have the specified property.
          *
@@ -302,6 +417,18 @@ public class JAlphaNodeConfigBuilder {
             return this;
         }
 
+        /**
+         * The async executor will deliver notifications through the specified executor.
+         *
+         * @param   executor  executor mode
+         *
+         * @return  the async executor builder instance
+         */
+        public AsyncNotificationExecutorBuilder withExecutor(final NotificationExecutorMode executor) {
+            this.getConfig().getAsyncNotificationExecutor().setExecutor(executor);
+            return this;
+        }
+
         /**
          * The async executor will have the specified property.
          *
@@ -352,6 +479,18 @@ public class JAlphaNodeConfigBuilder {
             return this;
         }
 
+        /**
+         * Tasks will be distributed across the members of the cluster as specified.
+         *
+         * @param   distribution  task distribution
+         *
+         * @return  the membership builder instance
+         */
+        public MembershipBuilder withDistribution(final TaskDistribution distribution) {
+            this.getConfig().getMembership().setDistribution(distribution);
+            return this;
+        }
+
         /**
          * The group membership will have the specified property.
          *
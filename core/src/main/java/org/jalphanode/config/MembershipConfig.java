@@ -37,4 +37,11 @@ public interface MembershipConfig extends PropertiesContainerConfig {
      */
     String getClusterName();
 
+    /**
+     * Gets how tasks are distributed across the members of the cluster.
+     *
+     * @return  the task distribution
+     */
+    TaskDistribution getDistribution();
+
 }
@@ -40,12 +40,20 @@ public class MembershipType extends AbstractPropertiesContainer implements Membe
      */
     public static final String DEFAULT_CLUSTER_NAME = "jalphanode-cluster";
 
+    /**
+     * Default task distribution.
+     */
+    public static final TaskDistribution DEFAULT_DISTRIBUTION = TaskDistribution.MASTER;
+
     @XmlAttribute
     private String nodeName;
 
     @XmlAttribute
     private String clusterName;
 
+    @XmlAttribute
+    private TaskDistribution distribution;
+
     /**
      * Creates a new membership manager config type.
      */
@@ -53,6 +61,7 @@ public class MembershipType extends AbstractPropertiesContainer implements Membe
         super();
         this.nodeName = MembershipType.DEFAULT_NODE_NAME;
         this.clusterName = MembershipType.DEFAULT_CLUSTER_NAME;
+        this.distribution = MembershipType.DEFAULT_DISTRIBUTION;
     }
 
     /**
@@ -93,4 +102,23 @@ public class MembershipType extends AbstractPropertiesContainer implements Membe
         this.clusterName = clusterName;
     }
 
+    /**
+     * Gets the distribution property.
+     *
+     * @return  the distribution property
+     */
+    @Override
+    public TaskDistribution getDistribution() {
+        return this.distribution;
+    }
+
+    /**
+     * Sets the distribution property.
+     *
+     * @param  distribution  the distribution to set
+     */
+    public void setDistribution(final TaskDistribution distribution) {
+        this.distribution = distribution;
+    }
+
 }
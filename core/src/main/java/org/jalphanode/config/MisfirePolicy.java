@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * What happens when a task fires later than its misfire threshold, for instance after a long GC pause, a clock jump
+ * or a master failover.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@XmlType(name = "misfirePolicyType")
+@XmlEnum
+public enum MisfirePolicy {
+
+    /**
+     * The late firing runs now and the fire times missed meanwhile are skipped.
+     */
+    @XmlEnumValue("fireOnceNow")
+    FIRE_ONCE_NOW,
+
+    /**
+     * The late firing is dropped, along with the fire times missed meanwhile. The task runs again at its next fire
+     * time.
+     */
+    @XmlEnumValue("skipToNext")
+    SKIP_TO_NEXT,
+
+    /**
+     * Every missed fire time runs, no faster than the catch-up rate of the task.
+     */
+    @XmlEnumValue("fireAllMissed")
+    FIRE_ALL_MISSED
+}
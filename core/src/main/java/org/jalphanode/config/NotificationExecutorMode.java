@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Executors available to deliver asynchronous notifications.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@XmlType(name = "notificationExecutorType")
+@XmlEnum
+public enum NotificationExecutorMode {
+
+    /**
+     * Fixed size thread pool over a bounded queue, one queued task per listener invocation.
+     */
+    @XmlEnumValue("threadPool")
+    THREAD_POOL,
+
+    /**
+     * Preallocated ring buffer drained in batches by a fixed set of consumer threads.
+     */
+    @XmlEnumValue("ringBuffer")
+    RING_BUFFER
+}
@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * What happens when a task fires while a previous run of the same task is still executing.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@XmlType(name = "overlapPolicyType")
+@XmlEnum
+public enum OverlapPolicy {
+
+    /**
+     * The firing is dropped.
+     */
+    @XmlEnumValue("skip")
+    SKIP,
+
+    /**
+     * The firing is deferred until the running execution completes. Firings deferred while the task is running are
+     * folded into a single run.
+     */
+    @XmlEnumValue("coalesce")
+    COALESCE,
+
+    /**
+     * Runs overlap, up to the maximum concurrent runs of the task. Firings beyond that limit are dropped.
+     */
+    @XmlEnumValue("concurrent")
+    CONCURRENT
+}
@@ -0,0 +1,49 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * Executors available to run scheduled tasks.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@XmlType(name = "schedulerExecutorType")
+@XmlEnum
+public enum SchedulerExecutorMode {
+
+    /**
+     * Fixed size thread pool over a bounded queue, the caller runs the task when the queue is full.
+     */
+    @XmlEnumValue("threadPool")
+    THREAD_POOL,
+
+    /**
+     * One virtual thread per task execution. Falls back to {@link #THREAD_POOL} on JVMs without virtual threads.
+     */
+    @XmlEnumValue("virtualThread")
+    VIRTUAL_THREAD,
+
+    /**
+     * Work-stealing {@link java.util.concurrent.ForkJoinPool} in async mode, suited to CPU-bound tasks.
+     */
+    @XmlEnumValue("forkJoin")
+    FORK_JOIN
+}
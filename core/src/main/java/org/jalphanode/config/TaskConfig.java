@@ -50,4 +50,40 @@ public interface TaskConfig extends PropertiesContainerConfig {
      * @return  the schedule iterator
      */
     ScheduleIterator getScheduleIterator();
+
+    /**
+     * Gets what happens when the task fires while a previous run is still executing.
+     *
+     * @return  the overlap policy
+     */
+    OverlapPolicy getOverlapPolicy();
+
+    /**
+     * Gets the maximum number of concurrent runs of the task, used by the {@link OverlapPolicy#CONCURRENT} policy.
+     *
+     * @return  the maximum concurrent runs
+     */
+    Integer getMaxConcurrent();
+
+    /**
+     * Gets what happens when the task fires later than its misfire threshold.
+     *
+     * @return  the misfire policy
+     */
+    MisfirePolicy getMisfirePolicy();
+
+    /**
+     * Gets how late, in ms, a firing may run before it is handled as a misfire.
+     *
+     * @return  the misfire threshold in ms
+     */
+    Long getMisfireThreshold();
+
+    /**
+     * Gets the maximum rate at which missed fire times are caught up, used by the
+     * {@link MisfirePolicy#FIRE_ALL_MISSED} policy.
+     *
+     * @return  the catch-up rate, in firings per second
+     */
+    Integer getCatchUpRate();
 }
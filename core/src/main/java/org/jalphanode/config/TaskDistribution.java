@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import javax.xml.bind.annotation.XmlEnum;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * How tasks are distributed across the members of the cluster.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@XmlType(name = "taskDistributionType")
+@XmlEnum
+public enum TaskDistribution {
+
+    /**
+     * The master node runs every task, the other nodes stand by.
+     */
+    @XmlEnumValue("master")
+    MASTER,
+
+    /**
+     * Each task is owned by one member, placed on a consistent hash ring of the members, so every node runs a share
+     * of the tasks and only the tasks of the members leaving or joining the cluster move.
+     */
+    @XmlEnumValue("consistentHash")
+    CONSISTENT_HASH,
+
+    /**
+     * Each task is owned by the member elected by rendezvous hashing, see
+     * {@link org.jalphanode.cluster.RendezvousMasterNodeElectionPolicy}.
+     */
+    @XmlEnumValue("rendezvous")
+    RENDEZVOUS,
+
+    /**
+     * Each task is placed by the master node in proportion to the spare capacity reported by every member, see
+     * {@link org.jalphanode.cluster.WeightedTaskPartitioner}.
+     */
+    @XmlEnumValue("weighted")
+    WEIGHTED
+}
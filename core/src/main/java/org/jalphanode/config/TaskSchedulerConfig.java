@@ -30,4 +30,18 @@ public interface TaskSchedulerConfig extends PropertiesContainerConfig {
      */
     Integer getPoolSize();
 
+    /**
+     * Gets the timer structure used to hold scheduled tasks.
+     *
+     * @return  the scheduler engine
+     */
+    SchedulerEngine getEngine();
+
+    /**
+     * Gets the executor running the scheduled tasks.
+     *
+     * @return  the executor mode
+     */
+    SchedulerExecutorMode getExecutor();
+
 }
@@ -35,15 +35,33 @@ public class TaskSchedulerType extends AbstractPropertiesContainer implements Ta
      */
     public static final int DEFAULT_POOL_SIZE = 10;
 
+    /**
+     * Default scheduler engine.
+     */
+    public static final SchedulerEngine DEFAULT_ENGINE = SchedulerEngine.DELAY_QUEUE;
+
+    /**
+     * Default executor.
+     */
+    public static final SchedulerExecutorMode DEFAULT_EXECUTOR = SchedulerExecutorMode.THREAD_POOL;
+
     @XmlAttribute
     private Integer poolSize;
 
+    @XmlAttribute
+    private SchedulerEngine engine;
+
+    @XmlAttribute
+    private SchedulerExecutorMode executor;
+
     /**
      * Creates a new async executor with default configuration.
      */
     public TaskSchedulerType() {
         super();
         this.poolSize = TaskSchedulerType.DEFAULT_POOL_SIZE;
+        this.engine = TaskSchedulerType.DEFAULT_ENGINE;
+        this.executor = TaskSchedulerType.DEFAULT_EXECUTOR;
     }
 
     /**
@@ -64,4 +82,42 @@ public class TaskSchedulerType extends AbstractPropertiesContainer implements Ta
     public void setPoolSize(final Integer poolSize) {
         this.poolSize = poolSize;
     }
+
+    /**
+     * Gets the engine property.
+     *
+     * @return  the engine property
+     */
+    @Override
+    public SchedulerEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Sets the engine property.
+     *
+     * @param  engine  the engine to set
+     */
+    public void setEngine(final SchedulerEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Gets the executor property.
+     *
+     * @return  the executor property
+     */
+    @Override
+    public SchedulerExecutorMode getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Sets the executor property.
+     *
+     * @param  executor  the executor to set
+     */
+    public void setExecutor(final SchedulerExecutorMode executor) {
+        this.executor = executor;
+    }
 }
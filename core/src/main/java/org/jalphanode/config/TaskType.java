@@ -44,6 +44,31 @@ public class TaskType extends AbstractPropertiesContainer implements TaskConfig
      */
     public static final Task DEFAULT_TASK = new NoTask();
 
+    /**
+     * Default overlap policy.
+     */
+    public static final OverlapPolicy DEFAULT_OVERLAP_POLICY = OverlapPolicy.COALESCE;
+
+    /**
+     * Default maximum concurrent runs.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT = 1;
+
+    /**
+     * Default misfire policy.
+     */
+    public static final MisfirePolicy DEFAULT_MISFIRE_POLICY = MisfirePolicy.FIRE_ONCE_NOW;
+
+    /**
+     * Default misfire threshold in ms.
+     */
+    public static final long DEFAULT_MISFIRE_THRESHOLD = 5000;
+
+    /**
+     * Default catch-up rate, in firings per second.
+     */
+    public static final int DEFAULT_CATCH_UP_RATE = 10;
+
     @XmlAttribute(required = true)
     private String taskName;
 
@@ -55,6 +80,21 @@ public class TaskType extends AbstractPropertiesContainer implements TaskConfig
     @XmlJavaTypeAdapter(CronTriggerAdapter.class)
     private ScheduleIterator scheduleIterator;
 
+    @XmlAttribute
+    private OverlapPolicy overlapPolicy;
+
+    @XmlAttribute
+    private Integer maxConcurrent;
+
+    @XmlAttribute
+    private MisfirePolicy misfirePolicy;
+
+    @XmlAttribute
+    private Long misfireThreshold;
+
+    @XmlAttribute
+    private Integer catchUpRate;
+
     /**
      * Creates a new TaskType.
      */
@@ -63,6 +103,11 @@ public class TaskType extends AbstractPropertiesContainer implements TaskConfig
         this.taskName = TaskType.DEFAULT_TASK_NAME;
         this.task = TaskType.DEFAULT_TASK;
         this.scheduleIterator = CronTriggerAdapter.buildDefaultScheduleIterator();
+        this.overlapPolicy = TaskType.DEFAULT_OVERLAP_POLICY;
+        this.maxConcurrent = TaskType.DEFAULT_MAX_CONCURRENT;
+        this.misfirePolicy = TaskType.DEFAULT_MISFIRE_POLICY;
+        this.misfireThreshold = TaskType.DEFAULT_MISFIRE_THRESHOLD;
+        this.catchUpRate = TaskType.DEFAULT_CATCH_UP_RATE;
     }
 
     /**
@@ -122,6 +167,101 @@ public class TaskType extends AbstractPropertiesContainer implements TaskConfig
         this.scheduleIterator = scheduleIterator;
     }
 
+    /**
+     * Gets the overlapPolicy property.
+     *
+     * @return  the overlapPolicy property
+     */
+    @Override
+    public OverlapPolicy getOverlapPolicy() {
+        return this.overlapPolicy;
+    }
+
+    /**
+     * Sets the overlapPolicy property.
+     *
+     * @param  overlapPolicy  the overlapPolicy to set
+     */
+    public void setOverlapPolicy(final OverlapPolicy overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+    }
+
+    /**
+     * Gets the maxConcurrent property.
+     *
+     * @return  the maxConcurrent property
+     */
+    @Override
+    public Integer getMaxConcurrent() {
+        return this.maxConcurrent;
+    }
+
+    /**
+     * Sets the maxConcurrent property.
+     *
+     * @param  maxConcurrent  the maxConcurrent to set
+     */
+    public void setMaxConcurrent(final Integer maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Gets the misfirePolicy property.
+     *
+     * @return  the misfirePolicy property
+     */
+    @Override
+    public MisfirePolicy getMisfirePolicy() {
+        return this.misfirePolicy;
+    }
+
+    /**
+     * Sets the misfirePolicy property.
+     *
+     * @param  misfirePolicy  the misfirePolicy to set
+     */
+    public void setMisfirePolicy(final MisfirePolicy misfirePolicy) {
+        this.misfirePolicy = misfirePolicy;
+    }
+
+    /**
+     * Gets the misfireThreshold property.
+     *
+     * @return  the misfireThreshold property
+     */
+    @Override
+    public Long getMisfireThreshold() {
+        return this.misfireThreshold;
+    }
+
+    /**
+     * Sets the misfireThreshold property.
+     *
+     * @param  misfireThreshold  the misfireThreshold to set
+     */
+    public void setMisfireThreshold(final Long misfireThreshold) {
+        this.misfireThreshold = misfireThreshold;
+    }
+
+    /**
+     * Gets the catchUpRate property.
+     *
+     * @return  the catchUpRate property
+     */
+    @Override
+    public Integer getCatchUpRate() {
+        return this.catchUpRate;
+    }
+
+    /**
+     * Sets the catchUpRate property.
+     *
+     * @param  catchUpRate  the catchUpRate to set
+     */
+    public void setCatchUpRate(final Integer catchUpRate) {
+        this.catchUpRate = catchUpRate;
+    }
+
     static class Adapter extends XmlAdapter<TaskType, TaskConfig> {
 
         @Override
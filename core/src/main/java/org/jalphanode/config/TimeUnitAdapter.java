@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.config;
+
+import com.google.common.base.Preconditions;
+
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a lower case time unit name, for instance {@code milliseconds}, into a {@link TimeUnit}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class TimeUnitAdapter extends XmlAdapter<String, TimeUnit> {
+
+    @Override
+    public String marshal(final TimeUnit timeUnit) {
+        return Preconditions.checkNotNull(timeUnit, "timeUnit").name().toLowerCase(Locale.ENGLISH);
+    }
+
+    @Override
+    public TimeUnit unmarshal(final String timeUnit) {
+        Preconditions.checkNotNull(timeUnit, "timeUnit");
+        return TimeUnit.valueOf(timeUnit.trim().toUpperCase(Locale.ENGLISH));
+    }
+}
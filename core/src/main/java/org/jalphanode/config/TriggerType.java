@@ -23,25 +23,31 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlType;
 
 /**
- * Trigger configuration.
+ * Trigger configuration: either a cron expression with an optional time zone, a fixed rate or a fixed delay.
  *
  * @author   ribeirux
  * @version  $Revision$
  */
 @XmlAccessorType(XmlAccessType.FIELD)
-@XmlType(name = "triggerType", propOrder = {"expression", "timezone"})
+@XmlType(name = "triggerType", propOrder = {"expression", "timezone", "fixedRate", "fixedDelay"})
 public class TriggerType {
 
     private static final String DEFAULT_EXPRESSION = "*/1 * * * * ?";
 
     private static final String DEFAULT_EXPRESSION_TIMEZONE = TimeZone.getDefault().getDisplayName();
 
-    @XmlElement(required = true)
+    @XmlElement
     private String expression;
 
     @XmlElement
     private String timezone;
 
+    @XmlElement
+    private IntervalType fixedRate;
+
+    @XmlElement
+    private IntervalType fixedDelay;
+
     /**
      * Creates a new trigger with default configuration.
      */
@@ -86,4 +92,39 @@ public class TriggerType {
         this.timezone = timezone;
     }
 
+    /**
+     * Gets the fixedRate property.
+     *
+     * @return  the fixedRate property, or null if this is not a fixed-rate trigger
+     */
+    public IntervalType getFixedRate() {
+        return this.fixedRate;
+    }
+
+    /**
+     * Sets the fixedRate property.
+     *
+     * @param  fixedRate  the fixedRate to set
+     */
+    public void setFixedRate(final IntervalType fixedRate) {
+        this.fixedRate = fixedRate;
+    }
+
+    /**
+     * Gets the fixedDelay property.
+     *
+     * @return  the fixedDelay property, or null if this is not a fixed-delay trigger
+     */
+    public IntervalType getFixedDelay() {
+        return this.fixedDelay;
+    }
+
+    /**
+     * Sets the fixedDelay property.
+     *
+     * @param  fixedDelay  the fixedDelay to set
+     */
+    public void setFixedDelay(final IntervalType fixedDelay) {
+        this.fixedDelay = fixedDelay;
+    }
 }
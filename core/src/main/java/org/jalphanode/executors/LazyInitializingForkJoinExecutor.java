@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import org.jalphanode.annotation.Stop;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.TaskSchedulerConfig;
+import org.jalphanode.config.TypedPropertiesConfig;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedAttribute;
+import org.jalphanode.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scheduler executor backed by a work-stealing {@link ForkJoinPool} in async mode. Each worker owns a task deque, so
+ * producers and consumers do not contend on a single queue, which suits CPU-bound tasks. Shares the thread and
+ * shutdown properties of {@link LazyInitializingSchedulerExecutor}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@MBean(objectName = LazyInitializingSchedulerExecutor.OBJECT_NAME,
+    description = "Work-stealing pool running scheduled tasks")
+public class LazyInitializingForkJoinExecutor implements Executor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyInitializingForkJoinExecutor.class);
+
+    protected static final String PARALLELISM_PROPERTY = "parallelism";
+
+    private final JAlphaNodeConfig config;
+
+    private volatile boolean running = true;
+    private volatile ForkJoinPool pool;
+
+    @Inject
+    public LazyInitializingForkJoinExecutor(final JAlphaNodeConfig config) {
+        this.config = Preconditions.checkNotNull(config, "config");
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+
+        if (running) {
+            if (pool == null) {
+                synchronized (this) {
+                    if (running && pool == null) {
+                        pool = createPool();
+                    }
+                }
+            }
+
+            // reject tasks if the executor was shutdown
+            if (pool != null) {
+                pool.execute(command);
+            }
+        }
+    }
+
+    // last thing to stop
+    @Stop(priority = 999)
+    public void stop() {
+        synchronized (this) {
+            running = false;
+
+            if (pool != null) {
+                LOG.info("Shutting down scheduler executor");
+
+                LazyInitializingSchedulerExecutor.shutdown(pool, this.config);
+            }
+        }
+    }
+
+    @ManagedAttribute(name = "Pool size", description = "Returns the current number of threads in the pool")
+    public int getPoolSize() {
+        final ForkJoinPool current = pool;
+        return (current == null) ? 0 : current.getPoolSize();
+    }
+
+    @ManagedAttribute(name = "Parallelism", description = "Returns the targeted number of running threads")
+    public int getParallelism() {
+        final ForkJoinPool current = pool;
+        return (current == null) ? 0 : current.getParallelism();
+    }
+
+    @ManagedAttribute(name = "Active count", description = "Returns the number of threads running or stealing tasks")
+    public int getActiveCount() {
+        final ForkJoinPool current = pool;
+        return (current == null) ? 0 : current.getActiveThreadCount();
+    }
+
+    @ManagedAttribute(name = "Queue depth",
+        description = "Returns the estimated number of tasks waiting in the worker and submission queues")
+    public long getQueueDepth() {
+        final ForkJoinPool current = pool;
+        return (current == null) ? 0 : (current.getQueuedTaskCount() + current.getQueuedSubmissionCount());
+    }
+
+    @ManagedAttribute(name = "Steal count",
+        description = "Returns the estimated number of tasks taken from the queue of another worker")
+    public long getStealCount() {
+        final ForkJoinPool current = pool;
+        return (current == null) ? 0 : current.getStealCount();
+    }
+
+    protected ForkJoinPool createPool() {
+        final TaskSchedulerConfig schedulerConfig = this.config.getTaskScheduler();
+
+        final TypedPropertiesConfig props = schedulerConfig.getProperties();
+        final int parallelism = props.getIntProperty(PARALLELISM_PROPERTY, schedulerConfig.getPoolSize());
+        final String threadPrefix = props.getProperty(LazyInitializingSchedulerExecutor.THREAD_PREFIX_PROPERTY,
+                LazyInitializingSchedulerExecutor.DEFAULT_THREAD_PREFIX);
+        final int priority = props.getIntProperty(LazyInitializingSchedulerExecutor.THREAD_PRIORITY_PROPERTY,
+                LazyInitializingSchedulerExecutor.DEFAULT_THREAD_PRIORITY);
+
+        return new ForkJoinPool(parallelism, new DaemonThreadFactory(threadPrefix, priority),
+                (thread, e) -> LOG.error("Uncaught exception in {}", thread.getName(), e), true);
+    }
+}
@@ -20,22 +20,30 @@ import com.google.inject.Inject;
 import org.jalphanode.config.AsyncNotificationExecutorConfig;
 import org.jalphanode.config.JAlphaNodeConfig;
 import org.jalphanode.config.TypedPropertiesConfig;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedOperation;
+import org.jalphanode.jmx.annotation.ManagedParameter;
 import org.jalphanode.util.DaemonThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanOperationInfo;
+
 /**
  * Lazily constructs and initializes a thread pool executor.
  */
+@MBean(objectName = LazyInitializingNotifierExecutor.OBJECT_NAME,
+    description = "Thread pool delivering asynchronous notifications")
 public class LazyInitializingNotifierExecutor extends LazyInitializingThreadPoolExecutor {
 
     private static final Logger LOG = LoggerFactory.getLogger(LazyInitializingNotifierExecutor.class);
 
+    public static final String OBJECT_NAME = "NotifierExecutor";
+
     protected static final String KEEP_ALIVE_PROPERTY = "keepAlive";
     protected static final int DEFAULT_KEEP_ALIVE = 600000;
 
@@ -75,12 +83,21 @@ public class LazyInitializingNotifierExecutor extends LazyInitializingThreadPool
         final ThreadFactory factory = DaemonThreadFactory.newInstance(threadPrefix, priority);
 
         final ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, keepAlive, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+                new ResizableLinkedBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.CallerRunsPolicy());
         pool.allowCoreThreadTimeOut(true);
 
         return pool;
     }
 
+    @ManagedOperation(
+        name = "Resize queue", description = "Changes the maximum number of waiting tasks",
+        impact = MBeanOperationInfo.ACTION
+    )
+    public void resizeQueue(
+            @ManagedParameter(name = "capacity", description = "The new queue capacity") final int capacity) {
+        setQueueCapacity(capacity);
+    }
+
     @Override
     protected void cleanup(final ThreadPoolExecutor pool) {
         LOG.info("Shutting down notifier executor");
@@ -20,19 +20,28 @@ import com.google.inject.Inject;
 import org.jalphanode.config.JAlphaNodeConfig;
 import org.jalphanode.config.TaskSchedulerConfig;
 import org.jalphanode.config.TypedPropertiesConfig;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedOperation;
+import org.jalphanode.jmx.annotation.ManagedParameter;
 import org.jalphanode.util.DaemonThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanOperationInfo;
+
+@MBean(objectName = LazyInitializingSchedulerExecutor.OBJECT_NAME,
+    description = "Thread pool running scheduled tasks")
 public class LazyInitializingSchedulerExecutor extends LazyInitializingThreadPoolExecutor {
 
     private static final Logger LOG = LoggerFactory.getLogger(LazyInitializingSchedulerExecutor.class);
 
+    public static final String OBJECT_NAME = "SchedulerExecutor";
+
     protected static final String KEEP_ALIVE_PROPERTY = "keepAlive";
     protected static final int DEFAULT_KEEP_ALIVE = 600000;
 
@@ -71,19 +80,39 @@ public class LazyInitializingSchedulerExecutor extends LazyInitializingThreadPoo
         final ThreadFactory factory = DaemonThreadFactory.newInstance(threadPrefix, priority);
 
         final ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, keepAlive, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+                new ResizableLinkedBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.CallerRunsPolicy());
         pool.allowCoreThreadTimeOut(true);
 
         return pool;
     }
 
+    @ManagedOperation(
+        name = "Resize queue", description = "Changes the maximum number of waiting tasks",
+        impact = MBeanOperationInfo.ACTION
+    )
+    public void resizeQueue(
+            @ManagedParameter(name = "capacity", description = "The new queue capacity") final int capacity) {
+        setQueueCapacity(capacity);
+    }
+
     @Override
     protected void cleanup(final ThreadPoolExecutor pool) {
         LOG.info("Shutting down scheduler executor");
 
+        shutdown(pool, this.config);
+    }
+
+    /**
+     * Shuts down a pool running scheduled tasks, cancelling the tasks still running after the configured shutdown
+     * timeout.
+     *
+     * @param  pool    the pool to shut down
+     * @param  config  the configuration holding the shutdown timeout
+     */
+    static void shutdown(final ExecutorService pool, final JAlphaNodeConfig config) {
         pool.shutdown(); // Disable new tasks from being submitted
         try {
-            final TypedPropertiesConfig props = this.config.getTaskScheduler().getProperties();
+            final TypedPropertiesConfig props = config.getTaskScheduler().getProperties();
             final long timeout = props.getLongProperty(SHUTDOWN_TIMEOUT_PROPERTY, DEFAULT_SHUTDOWN_TIMEOUT);
 
             // Wait a while for existing tasks to terminate
@@ -92,7 +121,7 @@ public class LazyInitializingSchedulerExecutor extends LazyInitializingThreadPoo
 
                 // Wait a while for tasks to respond to being cancelled
                 if (!pool.awaitTermination(RUNNING_TASKS_TIMEOUT, TimeUnit.MILLISECONDS)) {
-                    LOG.error("Notifier pool did not terminate");
+                    LOG.error("Scheduler pool did not terminate");
                 }
             }
         } catch (InterruptedException ie) {
@@ -16,30 +16,39 @@
 package org.jalphanode.executors;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.management.MBeanOperationInfo;
+
+import com.google.common.base.Preconditions;
 import org.jalphanode.annotation.Stop;
+import org.jalphanode.jmx.annotation.ManagedAttribute;
+import org.jalphanode.jmx.annotation.ManagedOperation;
+import org.jalphanode.jmx.annotation.ManagedParameter;
+import org.jalphanode.stats.LatencyHistogram;
 
 public abstract class LazyInitializingThreadPoolExecutor implements Executor {
 
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
     private volatile boolean running = true;
     private volatile ThreadPoolExecutor pool;
 
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
     @Override
     public void execute(final Runnable command) {
 
         if (running) {
-            if (pool == null) {
-                synchronized (this) {
-                    if (running && pool == null) {
-                        pool = createThreadPool();
-                    }
-                }
-            }
+            final ThreadPoolExecutor current = getPool();
 
             // reject tasks if the executor was shutdown
-            if (pool != null) {
-                pool.execute(command);
+            if (current != null) {
+                current.execute(new TimedCommand(command, System.nanoTime()));
             }
         }
     }
@@ -56,8 +65,169 @@ public abstract class LazyInitializingThreadPoolExecutor implements Executor {
         }
     }
 
+    @ManagedAttribute(name = "Pool size", description = "Returns the current number of threads in the pool")
+    public int getPoolSize() {
+        final ThreadPoolExecutor current = pool;
+        return (current == null) ? 0 : current.getPoolSize();
+    }
+
+    @ManagedAttribute(name = "Core pool size", description = "Returns the core number of threads")
+    public int getCorePoolSize() {
+        final ThreadPoolExecutor current = pool;
+        return (current == null) ? 0 : current.getCorePoolSize();
+    }
+
+    @ManagedAttribute(name = "Active count", description = "Returns the number of threads running tasks")
+    public int getActiveCount() {
+        final ThreadPoolExecutor current = pool;
+        return (current == null) ? 0 : current.getActiveCount();
+    }
+
+    @ManagedAttribute(name = "Queue depth", description = "Returns the number of tasks waiting for a thread")
+    public int getQueueDepth() {
+        final ThreadPoolExecutor current = pool;
+        return (current == null) ? 0 : current.getQueue().size();
+    }
+
+    @ManagedAttribute(name = "Queue capacity", description = "Returns the maximum number of waiting tasks")
+    public int getQueueCapacity() {
+        final ThreadPoolExecutor current = pool;
+        return (current == null) ? 0 : (current.getQueue().size() + current.getQueue().remainingCapacity());
+    }
+
+    @ManagedAttribute(name = "Completed count", description = "Returns the number of completed tasks")
+    public long getCompletedCount() {
+        final ThreadPoolExecutor current = pool;
+        return (current == null) ? 0 : current.getCompletedTaskCount();
+    }
+
+    @ManagedAttribute(name = "Rejected count",
+        description = "Returns the number of tasks rejected by the pool, run by the caller when the queue is full")
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @ManagedAttribute(name = "Mean wait time", description = "Returns the mean time tasks waited for a thread in ms")
+    public double getMeanWaitTime() {
+        return waitTime.getMean() / NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "99th percentile wait time",
+        description = "Returns the 99th percentile time tasks waited for a thread in ms")
+    public double getWaitTimeP99() {
+        return waitTime.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "Max wait time", description = "Returns the longest time a task waited for a thread in ms")
+    public double getMaxWaitTime() {
+        return waitTime.getMax() / NANOS_PER_MILLI;
+    }
+
+    @ManagedOperation(
+        name = "Resize pool", description = "Changes the number of threads of the pool",
+        impact = MBeanOperationInfo.ACTION
+    )
+    public void resizePool(@ManagedParameter(name = "size", description = "The new pool size") final int size) {
+        Preconditions.checkArgument(size > 0, "size must be positive");
+
+        resize(getRunningPool(), size);
+    }
+
+    @ManagedOperation(name = "Reset", description = "Resets the wait time and rejected count",
+        impact = MBeanOperationInfo.ACTION)
+    public void reset() {
+        waitTime.reset();
+        rejectedCount.set(0);
+    }
+
     protected abstract ThreadPoolExecutor createThreadPool();
 
     protected abstract void cleanup(ThreadPoolExecutor pool);
 
+    /**
+     * Changes the number of threads of the pool.
+     *
+     * @param  current  the running pool
+     * @param  size     the new pool size
+     */
+    protected void resize(final ThreadPoolExecutor current, final int size) {
+
+        // the core size can never be above the maximum size
+        if (size > current.getMaximumPoolSize()) {
+            current.setMaximumPoolSize(size);
+            current.setCorePoolSize(size);
+        } else {
+            current.setCorePoolSize(size);
+            current.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * Changes the capacity of the work queue, for subclasses creating their pool with a
+     * {@link ResizableLinkedBlockingQueue}.
+     *
+     * @param  capacity  the new queue capacity
+     */
+    protected void setQueueCapacity(final int capacity) {
+        ((ResizableLinkedBlockingQueue<?>) getRunningPool().getQueue()).setCapacity(capacity);
+    }
+
+    private ThreadPoolExecutor getPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (running && pool == null) {
+                    final ThreadPoolExecutor created = createThreadPool();
+                    created.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(
+                            created.getRejectedExecutionHandler()));
+                    pool = created;
+                }
+            }
+        }
+
+        return pool;
+    }
+
+    private ThreadPoolExecutor getRunningPool() {
+        final ThreadPoolExecutor current = running ? getPool() : null;
+        if (current == null) {
+            throw new IllegalStateException("Executor is stopped");
+        }
+
+        return current;
+    }
+
+    /**
+     * Records how long the command waited for a thread.
+     */
+    private final class TimedCommand implements Runnable {
+
+        private final Runnable command;
+        private final long submitTime;
+
+        TimedCommand(final Runnable command, final long submitTime) {
+            this.command = command;
+            this.submitTime = submitTime;
+        }
+
+        @Override
+        public void run() {
+            waitTime.record(System.nanoTime() - submitTime);
+            command.run();
+        }
+    }
+
+    private final class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler delegate;
+
+        CountingRejectedExecutionHandler(final RejectedExecutionHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(final Runnable r, final ThreadPoolExecutor executor) {
+            rejectedCount.incrementAndGet();
+            delegate.rejectedExecution(r, executor);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.TypedPropertiesConfig;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.util.VirtualThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each scheduled task on a new virtual thread, on JVMs that support them. When the {@code maxConcurrency}
+ * property is positive, at most that many tasks run at the same time, the others wait for a permit on their own
+ * virtual thread. Resizing the pool changes that limit; there is no work queue to resize.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@MBean(objectName = LazyInitializingSchedulerExecutor.OBJECT_NAME,
+    description = "Virtual threads running scheduled tasks")
+public class LazyInitializingVirtualThreadExecutor extends LazyInitializingThreadPoolExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyInitializingVirtualThreadExecutor.class);
+
+    protected static final String MAX_CONCURRENCY_PROPERTY = "maxConcurrency";
+    protected static final int DEFAULT_MAX_CONCURRENCY = 0;
+
+    private final JAlphaNodeConfig config;
+
+    @Inject
+    public LazyInitializingVirtualThreadExecutor(final JAlphaNodeConfig config) {
+        this.config = Preconditions.checkNotNull(config, "config");
+    }
+
+    @Override
+    protected ThreadPoolExecutor createThreadPool() {
+        final TypedPropertiesConfig props = this.config.getTaskScheduler().getProperties();
+        final String threadPrefix = props.getProperty(LazyInitializingSchedulerExecutor.THREAD_PREFIX_PROPERTY,
+                LazyInitializingSchedulerExecutor.DEFAULT_THREAD_PREFIX);
+        final int maxConcurrency = props.getIntProperty(MAX_CONCURRENCY_PROPERTY, DEFAULT_MAX_CONCURRENCY);
+
+        final ThreadFactory factory = VirtualThreadFactory.newInstance(threadPrefix);
+        Preconditions.checkState(factory != null, "Virtual threads are not supported by this JVM");
+
+        return new VirtualThreadPerTaskExecutor(factory, (maxConcurrency > 0) ? maxConcurrency : Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected void resize(final ThreadPoolExecutor current, final int size) {
+        ((VirtualThreadPerTaskExecutor) current).permits.setLimit(size);
+    }
+
+    @Override
+    protected void cleanup(final ThreadPoolExecutor pool) {
+        LOG.info("Shutting down virtual thread executor");
+
+        LazyInitializingSchedulerExecutor.shutdown(pool, this.config);
+    }
+
+    /**
+     * Semaphore whose number of permits can be changed while some of them are taken.
+     */
+    private static final class ConcurrencyLimit extends Semaphore {
+
+        private static final long serialVersionUID = -2650395862131532237L;
+
+        private int limit;
+
+        ConcurrencyLimit(final int limit) {
+            super(limit);
+            this.limit = limit;
+        }
+
+        synchronized void setLimit(final int newLimit) {
+            if (newLimit > this.limit) {
+                this.release(newLimit - this.limit);
+            } else {
+
+                // running tasks keep their permits, the limit applies as they complete
+                this.reducePermits(this.limit - newLimit);
+            }
+
+            this.limit = newLimit;
+        }
+    }
+
+    private static class VirtualThreadPerTaskExecutor extends ThreadPoolExecutor {
+
+        private final ConcurrencyLimit permits;
+
+        public VirtualThreadPerTaskExecutor(final ThreadFactory factory, final int maxConcurrency) {
+            super(0, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), factory);
+            this.permits = new ConcurrencyLimit(maxConcurrency);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            Preconditions.checkNotNull(command, "command");
+
+            // the permit is taken by the task itself, so a task accepted by the executor always runs
+            super.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+}
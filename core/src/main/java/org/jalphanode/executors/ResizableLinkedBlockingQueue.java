@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Linked blocking queue whose capacity can be changed after construction. The capacity is enforced by
+ * {@link #offer(Object)}, the only insertion method used by {@link java.util.concurrent.ThreadPoolExecutor}; it is a
+ * soft bound, concurrent producers may briefly exceed it by a few elements. Lowering the capacity never drops queued
+ * elements, it only rejects new ones until the queue drains below the new bound.
+ *
+ * @param    <E>  the type of elements held in this queue
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ResizableLinkedBlockingQueue<E> extends LinkedBlockingQueue<E> {
+
+    private static final long serialVersionUID = 7143521064380658713L;
+
+    private volatile int capacity;
+
+    /**
+     * Creates a queue with the given capacity.
+     *
+     * @param  capacity  the capacity of this queue
+     */
+    public ResizableLinkedBlockingQueue(final int capacity) {
+        this.setCapacity(capacity);
+    }
+
+    /**
+     * Gets the capacity of this queue.
+     *
+     * @return  the capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Sets the capacity of this queue.
+     *
+     * @param  capacity  the new capacity
+     */
+    public void setCapacity(final int capacity) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(final E e) {
+        return (this.size() < this.capacity) && super.offer(e);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, this.capacity - this.size());
+    }
+}
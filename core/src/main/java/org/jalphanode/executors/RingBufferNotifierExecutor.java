@@ -0,0 +1,453 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import org.jalphanode.annotation.Stop;
+import org.jalphanode.config.AsyncNotificationExecutorConfig;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.TypedPropertiesConfig;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedAttribute;
+import org.jalphanode.notification.ListenerExecutor;
+import org.jalphanode.notification.ListenerInvocation;
+import org.jalphanode.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers asynchronous notifications through a preallocated ring buffer instead of queueing one task per listener
+ * invocation.
+ *
+ * <p>Publishers claim a slot, fill it and mark it as published; they block when the ring is full until a consumer
+ * releases slots. Each of the {@code poolSize} consumer threads walks every slot and drains the published ones in
+ * batches, invoking only the listeners assigned to it. A listener is always assigned to the same consumer, so its
+ * events are delivered in publication order. Slots are released to publishers once every consumer has passed them.</p>
+ *
+ * <p>A listener publishing from a consumer thread while the ring is full would wait for itself, so its notification is
+ * delivered inline instead, ahead of the ones still in the ring.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@MBean(objectName = RingBufferNotifierExecutor.OBJECT_NAME,
+    description = "Ring buffer delivering asynchronous notifications")
+public class RingBufferNotifierExecutor implements ListenerExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RingBufferNotifierExecutor.class);
+
+    public static final String OBJECT_NAME = "NotifierExecutor";
+
+    protected static final String RING_SIZE_PROPERTY = "ringSize";
+    protected static final int DEFAULT_RING_SIZE = 4096;
+
+    protected static final String THREAD_PRIORITY_PROPERTY = "threadPriority";
+    protected static final int DEFAULT_THREAD_PRIORITY = Thread.NORM_PRIORITY;
+
+    protected static final String THREAD_PREFIX_PROPERTY = "threadPrefix";
+    protected static final String DEFAULT_THREAD_PREFIX = "async-notifier-pool";
+
+    protected static final String SHUTDOWN_TIMEOUT_PROPERTY = "shutdownTimeout";
+    protected static final long DEFAULT_SHUTDOWN_TIMEOUT = 60000;
+
+    protected static final long RUNNING_TASKS_TIMEOUT = 60000;
+
+    private final JAlphaNodeConfig config;
+
+    private volatile boolean running = true;
+    private volatile RingBuffer ring;
+
+    @Inject
+    public RingBufferNotifierExecutor(final JAlphaNodeConfig config) {
+        this.config = Preconditions.checkNotNull(config, "config");
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        Preconditions.checkNotNull(command, "command");
+
+        final RingBuffer current = getRing();
+        if (current != null) {
+            current.publish(null, command, -1);
+        }
+    }
+
+    @Override
+    public void execute(final ListenerInvocation invocation, final Object event) {
+        Preconditions.checkNotNull(invocation, "invocation");
+
+        final RingBuffer current = getRing();
+        if (current != null) {
+            current.publish(invocation, event, System.identityHashCode(invocation.getTarget()) & Integer.MAX_VALUE);
+        }
+    }
+
+    // last thing to stop
+    @Stop(priority = 999)
+    public void stop() {
+        synchronized (this) {
+            running = false;
+
+            if (ring != null) {
+                LOG.info("Shutting down notifier executor");
+
+                final TypedPropertiesConfig props = config.getAsyncNotificationExecutor().getProperties();
+                ring.shutdown(props.getLongProperty(SHUTDOWN_TIMEOUT_PROPERTY, DEFAULT_SHUTDOWN_TIMEOUT));
+            }
+        }
+    }
+
+    @ManagedAttribute(name = "Ring size", description = "Returns the number of slots of the ring buffer")
+    public int getRingSize() {
+        final RingBuffer current = ring;
+        return (current == null) ? 0 : current.slots.length;
+    }
+
+    @ManagedAttribute(name = "Consumers", description = "Returns the number of consumer threads")
+    public int getConsumers() {
+        final RingBuffer current = ring;
+        return (current == null) ? 0 : current.consumers.length;
+    }
+
+    @ManagedAttribute(name = "Published count", description = "Returns the number of published notifications")
+    public long getPublishedCount() {
+        final RingBuffer current = ring;
+        return (current == null) ? 0 : (current.claimed.get() + 1);
+    }
+
+    @ManagedAttribute(name = "Backlog", description = "Returns the number of slots not yet released by consumers")
+    public long getBacklog() {
+        final RingBuffer current = ring;
+        return (current == null) ? 0 : (current.claimed.get() - current.minimumCursor());
+    }
+
+    private RingBuffer getRing() {
+        if (running && ring == null) {
+            synchronized (this) {
+                if (running && ring == null) {
+                    ring = createRing();
+                }
+            }
+        }
+
+        return running ? ring : null;
+    }
+
+    private RingBuffer createRing() {
+        final AsyncNotificationExecutorConfig asyncConfig = config.getAsyncNotificationExecutor();
+
+        final TypedPropertiesConfig props = asyncConfig.getProperties();
+        final int ringSize = props.getIntProperty(RING_SIZE_PROPERTY, DEFAULT_RING_SIZE);
+        final String threadPrefix = props.getProperty(THREAD_PREFIX_PROPERTY, DEFAULT_THREAD_PREFIX);
+        final int priority = props.getIntProperty(THREAD_PRIORITY_PROPERTY, DEFAULT_THREAD_PRIORITY);
+
+        Preconditions.checkArgument(ringSize > 0, "ringSize must be positive");
+        Preconditions.checkArgument(asyncConfig.getPoolSize() > 0, "poolSize must be positive");
+
+        final RingBuffer created = new RingBuffer(ringSize, asyncConfig.getPoolSize());
+        created.start(DaemonThreadFactory.newInstance(threadPrefix, priority));
+
+        return created;
+    }
+
+    /**
+     * Ring slot. Fields are written by the publisher before the sequence, and read by consumers after it.
+     */
+    private static final class Slot {
+
+        private ListenerInvocation invocation;
+        private Object payload;
+        private int consumer;
+        private volatile long sequence = -1;
+    }
+
+    private final class RingBuffer {
+
+        private final Slot[] slots;
+        private final int mask;
+        private final Consumer[] consumers;
+
+        // highest claimed sequence
+        private final AtomicLong claimed = new AtomicLong(-1);
+
+        // lowest consumer cursor seen by publishers, refreshed when the ring looks full
+        private volatile long gatingCursor = -1;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private final Condition released = lock.newCondition();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger waitingPublishers = new AtomicInteger();
+
+        RingBuffer(final int ringSize, final int consumerCount) {
+
+            // power of two, so sequences map to slots with a mask
+            final int size = Integer.highestOneBit(ringSize - 1) << 1;
+            slots = new Slot[Math.max(size, 1)];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new Slot();
+            }
+
+            mask = slots.length - 1;
+
+            consumers = new Consumer[consumerCount];
+            for (int i = 0; i < consumerCount; i++) {
+                consumers[i] = new Consumer(i);
+            }
+        }
+
+        void start(final ThreadFactory threadFactory) {
+            for (Consumer consumer : consumers) {
+                consumer.thread = threadFactory.newThread(consumer);
+                consumer.thread.start();
+            }
+        }
+
+        void publish(final ListenerInvocation invocation, final Object payload, final int key) {
+            final long sequence = isConsumerThread() ? tryClaim() : claimed.incrementAndGet();
+            if (sequence < 0) {
+                deliver(invocation, payload);
+                return;
+            }
+
+            // wait until every consumer released the slot, dropping the notification if the executor stops
+            final long wrapPoint = sequence - slots.length;
+            if (wrapPoint > gatingCursor) {
+                long minimum = minimumCursor();
+                if (wrapPoint > minimum) {
+                    minimum = awaitRelease(wrapPoint);
+                    if (wrapPoint > minimum) {
+                        return;
+                    }
+                }
+
+                gatingCursor = minimum;
+            }
+
+            final Slot slot = slots[(int) sequence & mask];
+            slot.invocation = invocation;
+            slot.payload = payload;
+            slot.consumer = (int) (((key < 0) ? sequence : key) % consumers.length);
+            slot.sequence = sequence;
+
+            if (waiting.get() > 0) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Claims a sequence only if its slot is free, so a consumer never waits for itself.
+         *
+         * @return  the claimed sequence, or -1 if the ring is full
+         */
+        private long tryClaim() {
+            long current;
+            do {
+                current = claimed.get();
+                if ((current + 1 - slots.length) > minimumCursor()) {
+                    return -1;
+                }
+            } while (!claimed.compareAndSet(current, current + 1));
+
+            return current + 1;
+        }
+
+        private boolean isConsumerThread() {
+            final Thread current = Thread.currentThread();
+            for (Consumer consumer : consumers) {
+                if (consumer.thread == current) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Blocks until every consumer passed the wrap point, or the executor stops.
+         *
+         * @return  the lowest consumer cursor
+         */
+        private long awaitRelease(final long wrapPoint) {
+            waitingPublishers.incrementAndGet();
+            lock.lock();
+            try {
+                long minimum = minimumCursor();
+                while ((wrapPoint > minimum) && running) {
+                    released.awaitUninterruptibly();
+                    minimum = minimumCursor();
+                }
+
+                return minimum;
+            } finally {
+                lock.unlock();
+                waitingPublishers.decrementAndGet();
+            }
+        }
+
+        /**
+         * Wakes up the publishers waiting for slots, once a consumer moved its cursor.
+         */
+        private void signalReleased() {
+            if (waitingPublishers.get() > 0) {
+                lock.lock();
+                try {
+                    released.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private void deliver(final ListenerInvocation invocation, final Object payload) {
+            if (invocation != null) {
+                invocation.invokeNow(payload);
+            } else {
+                try {
+                    ((Runnable) payload).run();
+                } catch (Throwable t) {
+                    LOG.error("Notification task failed: {}", t.getMessage(), t);
+                }
+            }
+        }
+
+        long minimumCursor() {
+            long minimum = Long.MAX_VALUE;
+            for (Consumer consumer : consumers) {
+                minimum = Math.min(minimum, consumer.cursor);
+            }
+
+            return minimum;
+        }
+
+        /**
+         * Waits until the slot holds the sequence.
+         *
+         * @return  false if the executor stopped and the sequence was not published
+         */
+        boolean await(final Slot slot, final long sequence) throws InterruptedException {
+            waiting.incrementAndGet();
+            lock.lock();
+            try {
+                while (slot.sequence != sequence) {
+                    if (!running) {
+                        return false;
+                    }
+
+                    published.await();
+                }
+
+                return true;
+            } finally {
+                lock.unlock();
+                waiting.decrementAndGet();
+            }
+        }
+
+        void shutdown(final long timeout) {
+            lock.lock();
+            try {
+                published.signalAll();
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                final long deadline = System.currentTimeMillis() + timeout;
+                for (Consumer consumer : consumers) {
+                    consumer.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+                }
+
+                for (Consumer consumer : consumers) {
+                    if (consumer.thread.isAlive()) {
+                        consumer.thread.interrupt(); // Cancel currently executing listeners
+                        consumer.thread.join(RUNNING_TASKS_TIMEOUT);
+                        if (consumer.thread.isAlive()) {
+                            LOG.error("Notifier consumer {} did not terminate", consumer.thread.getName());
+                        }
+                    }
+                }
+            } catch (InterruptedException ie) {
+                LOG.warn("Shutdown interrupted", ie);
+
+                // Preserve interrupt status
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private final class Consumer implements Runnable {
+
+            private final int index;
+            private volatile long cursor = -1;
+            private Thread thread;
+
+            Consumer(final int index) {
+                this.index = index;
+            }
+
+            @Override
+            public void run() {
+                long next = cursor + 1;
+                try {
+                    while (true) {
+                        Slot slot = slots[(int) next & mask];
+                        if ((slot.sequence != next) && !await(slot, next)) {
+                            break;
+                        }
+
+                        // drain every published slot in one batch, releasing them all at once
+                        do {
+                            if (slot.consumer == index) {
+                                final ListenerInvocation invocation = slot.invocation;
+                                final Object payload = slot.payload;
+
+                                // the ring does not retain delivered events, the cursor publishes the cleared slot
+                                slot.invocation = null;
+                                slot.payload = null;
+                                deliver(invocation, payload);
+                            }
+
+                            next++;
+                            slot = slots[(int) next & mask];
+                        } while (slot.sequence == next);
+
+                        cursor = next - 1;
+                        signalReleased();
+                    }
+                } catch (InterruptedException e) {
+                    LOG.info("Notifier consumer interrupted");
+
+                    // Restore the interrupted status
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+        }
+    }
+}
@@ -24,14 +24,29 @@ import com.google.inject.spi.TypeEncounter;
 import com.google.inject.spi.TypeListener;
 import org.jalphanode.annotation.NotifierExecutor;
 import org.jalphanode.annotation.SchedulerExecutor;
+import org.jalphanode.cluster.ConsistentHashTaskPartitioner;
+import org.jalphanode.cluster.ElectionPolicyTaskPartitioner;
+import org.jalphanode.cluster.FencingCheck;
+import org.jalphanode.cluster.FileLeaseFencingCheck;
 import org.jalphanode.cluster.MasterNodeElectionPolicy;
+import org.jalphanode.cluster.MasterTaskPartitioner;
 import org.jalphanode.cluster.MembershipManager;
+import org.jalphanode.cluster.RendezvousMasterNodeElectionPolicy;
+import org.jalphanode.cluster.ScheduleStateRegistry;
 import org.jalphanode.cluster.SimpleMasterNodeElectionPolicy;
+import org.jalphanode.cluster.TaskPartitioner;
+import org.jalphanode.cluster.WeightedTaskPartitioner;
 import org.jalphanode.cluster.jgroups.ChannelProvider;
 import org.jalphanode.cluster.jgroups.JGroupsMembershipManager;
 import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.NotificationExecutorMode;
+import org.jalphanode.config.SchedulerExecutorMode;
+import org.jalphanode.config.TaskDistribution;
+import org.jalphanode.executors.LazyInitializingForkJoinExecutor;
 import org.jalphanode.executors.LazyInitializingNotifierExecutor;
 import org.jalphanode.executors.LazyInitializingSchedulerExecutor;
+import org.jalphanode.executors.LazyInitializingVirtualThreadExecutor;
+import org.jalphanode.executors.RingBufferNotifierExecutor;
 import org.jalphanode.jmx.DefaultMBeanRegistry;
 import org.jalphanode.jmx.MBeanAnnotationScanner;
 import org.jalphanode.jmx.MBeanMetadata;
@@ -41,6 +56,10 @@ import org.jalphanode.notification.Notifier;
 import org.jalphanode.notification.NotifierImpl;
 import org.jalphanode.scheduler.TaskScheduler;
 import org.jalphanode.scheduler.TaskSchedulerImpl;
+import org.jalphanode.stats.SchedulingLag;
+import org.jalphanode.stats.TaskMetricsListener;
+import org.jalphanode.stats.TaskStatisticsRegistry;
+import org.jalphanode.util.VirtualThreadFactory;
 import org.jgroups.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -96,6 +115,15 @@ public class InjectorModule extends AbstractModule {
         // task scheduler
         this.bindTaskScheduler();
 
+        // task statistics
+        this.bindTaskStatisticsRegistry();
+
+        // Bind scheduling lag
+        this.bindSchedulingLag();
+
+        // Bind task metrics listener
+        this.bindTaskMetricsListener();
+
         // Bind scheduler executor
         this.bindSchedulerExecutor();
 
@@ -105,9 +133,18 @@ public class InjectorModule extends AbstractModule {
         // bind membership channel
         this.bindMembershipChannel();
 
+        // bind schedule state registry
+        this.bindScheduleStateRegistry();
+
         // Bind master node election policy
         this.bindMasterNodeElectionPolicy();
 
+        // bind task partitioner
+        this.bindTaskPartitioner();
+
+        // bind fencing check
+        this.bindFencingCheck();
+
         // Bind MBean annotation listener
         this.bindMBeanListener();
     }
@@ -125,17 +162,47 @@ public class InjectorModule extends AbstractModule {
     }
 
     protected void bindAsyncNotifierExecutor() {
-        this.bind(Executor.class).annotatedWith(NotifierExecutor.class).to(LazyInitializingNotifierExecutor.class)
-            .asEagerSingleton();
+        if (this.config.getAsyncNotificationExecutor().getExecutor() == NotificationExecutorMode.RING_BUFFER) {
+            this.bind(Executor.class).annotatedWith(NotifierExecutor.class).to(RingBufferNotifierExecutor.class)
+                .asEagerSingleton();
+        } else {
+            this.bind(Executor.class).annotatedWith(NotifierExecutor.class)
+                .to(LazyInitializingNotifierExecutor.class).asEagerSingleton();
+        }
     }
 
     protected void bindTaskScheduler() {
         this.bind(TaskScheduler.class).to(TaskSchedulerImpl.class).asEagerSingleton();
     }
 
+    protected void bindTaskStatisticsRegistry() {
+        this.bind(TaskStatisticsRegistry.class).asEagerSingleton();
+    }
+
+    protected void bindSchedulingLag() {
+        this.bind(SchedulingLag.class).asEagerSingleton();
+    }
+
+    protected void bindTaskMetricsListener() {
+        this.bind(TaskMetricsListener.class).toInstance(TaskMetricsListener.NO_OP);
+    }
+
     protected void bindSchedulerExecutor() {
-        this.bind(Executor.class).annotatedWith(SchedulerExecutor.class).to(LazyInitializingSchedulerExecutor.class)
-            .asEagerSingleton();
+        final SchedulerExecutorMode mode = this.config.getTaskScheduler().getExecutor();
+        if (mode == SchedulerExecutorMode.FORK_JOIN) {
+            this.bind(Executor.class).annotatedWith(SchedulerExecutor.class)
+                .to(LazyInitializingForkJoinExecutor.class).asEagerSingleton();
+        } else if ((mode == SchedulerExecutorMode.VIRTUAL_THREAD) && VirtualThreadFactory.isSupported()) {
+            this.bind(Executor.class).annotatedWith(SchedulerExecutor.class)
+                .to(LazyInitializingVirtualThreadExecutor.class).asEagerSingleton();
+        } else {
+            if (mode == SchedulerExecutorMode.VIRTUAL_THREAD) {
+                LOG.warn("Virtual threads are not supported by this JVM, falling back to a thread pool");
+            }
+
+            this.bind(Executor.class).annotatedWith(SchedulerExecutor.class)
+                .to(LazyInitializingSchedulerExecutor.class).asEagerSingleton();
+        }
     }
 
     protected void bindMembershipManager() {
@@ -146,8 +213,39 @@ public class InjectorModule extends AbstractModule {
         this.bind(Channel.class).toProvider(ChannelProvider.class).asEagerSingleton();
     }
 
+    protected void bindScheduleStateRegistry() {
+        this.bind(ScheduleStateRegistry.class).asEagerSingleton();
+    }
+
     protected void bindMasterNodeElectionPolicy() {
-        this.bind(MasterNodeElectionPolicy.class).to(SimpleMasterNodeElectionPolicy.class);
+        final TaskDistribution distribution = this.config.getMembership().getDistribution();
+        if ((distribution == TaskDistribution.RENDEZVOUS) || (distribution == TaskDistribution.WEIGHTED)) {
+            this.bind(MasterNodeElectionPolicy.class).to(RendezvousMasterNodeElectionPolicy.class).asEagerSingleton();
+        } else {
+            this.bind(MasterNodeElectionPolicy.class).to(SimpleMasterNodeElectionPolicy.class);
+        }
+    }
+
+    protected void bindTaskPartitioner() {
+        final TaskDistribution distribution = this.config.getMembership().getDistribution();
+        if (distribution == TaskDistribution.CONSISTENT_HASH) {
+            this.bind(TaskPartitioner.class).to(ConsistentHashTaskPartitioner.class).asEagerSingleton();
+        } else if (distribution == TaskDistribution.RENDEZVOUS) {
+            this.bind(TaskPartitioner.class).to(ElectionPolicyTaskPartitioner.class).asEagerSingleton();
+        } else if (distribution == TaskDistribution.WEIGHTED) {
+            this.bind(TaskPartitioner.class).to(WeightedTaskPartitioner.class).asEagerSingleton();
+        } else {
+            this.bind(TaskPartitioner.class).to(MasterTaskPartitioner.class).asEagerSingleton();
+        }
+    }
+
+    protected void bindFencingCheck() {
+        if (this.config.getMembership().getProperties().getProperty(
+                    FileLeaseFencingCheck.FENCING_DIRECTORY_PROPERTY, true) != null) {
+            this.bind(FencingCheck.class).to(FileLeaseFencingCheck.class).asEagerSingleton();
+        } else {
+            this.bind(FencingCheck.class).toInstance(FencingCheck.NONE);
+        }
     }
 
     protected void bindMBeanListener() {
@@ -72,6 +72,18 @@ public abstract class AbstractListener {
         return this.getListenersMap().get(Preconditions.checkNotNull(annotation, "annotation"));
     }
 
+    /**
+     * Checks whether any listener is registered with specified annotation.
+     *
+     * @param   annotation  annotation class
+     *
+     * @return  true if at least one listener is registered with specified annotation
+     */
+    public boolean hasListeners(final Class<? extends Annotation> annotation) {
+        final List<ListenerInvocation> listeners = this.getListenersMap().get(annotation);
+        return (listeners != null) && !listeners.isEmpty();
+    }
+
     /**
      * Gets all listeners.
      *
@@ -177,7 +189,8 @@ public abstract class AbstractListener {
 
     /**
      * Loops through all valid methods on the object passed in, and caches the relevant methods as
-     * {@link ListenerInvocation} for invocation by reflection.
+     * {@link ListenerInvocation}. Each method is compiled once into a {@link ListenerInvoker}, so events are
+     * dispatched without reflection.
      *
      * @param  listener  object to be considered as a listener.
      */
@@ -199,7 +212,8 @@ public abstract class AbstractListener {
                 if (m.isAnnotationPresent(key)) {
                     this.testListenerMethodValidity(m, value, key.getName());
                     this.addListenerInvocation(key,
-                        new ListenerInvocation(listener, m, (sync ? this.syncExecutor : this.asyncExecutor)));
+                        new ListenerInvocation(listener, m, ListenerInvokerFactory.newInstance(m),
+                            (sync ? this.syncExecutor : this.asyncExecutor)));
                     foundMethods = true;
                 }
             }
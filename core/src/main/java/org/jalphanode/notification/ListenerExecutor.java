@@ -0,0 +1,38 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.notification;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that receives asynchronous listener invocations as they are, rather than wrapped in a {@link Runnable},
+ * so it can deliver them without allocating and keep the events of each listener in order.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public interface ListenerExecutor extends Executor {
+
+    /**
+     * Delivers an event to a listener at some time in the future, by calling
+     * {@link ListenerInvocation#invokeNow(Object)} from another thread. Events of the same listener are delivered in
+     * the order they are executed.
+     *
+     * @param  invocation  listener invocation
+     * @param  event       event to deliver
+     */
+    void execute(ListenerInvocation invocation, Object event);
+}
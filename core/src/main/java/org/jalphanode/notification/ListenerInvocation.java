@@ -16,10 +16,10 @@
 package org.jalphanode.notification;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.concurrent.Executor;
 
@@ -33,9 +33,13 @@ public class ListenerInvocation {
 
     private static final Logger LOG = LoggerFactory.getLogger(ListenerInvocation.class);
 
+    private static final Executor DIRECT_EXECUTOR = MoreExecutors.directExecutor();
+
     private final Object target;
     private final Method method;
+    private final ListenerInvoker invoker;
     private final Executor executor;
+    private final ListenerExecutor listenerExecutor;
 
     /**
      * Creates a new listener invocation.
@@ -45,9 +49,24 @@ public class ListenerInvocation {
      * @param  executor  executor
      */
     public ListenerInvocation(final Object target, final Method method, final Executor executor) {
+        this(target, method, ListenerInvokerFactory.newInstance(method), executor);
+    }
+
+    /**
+     * Creates a new listener invocation.
+     *
+     * @param  target    listener
+     * @param  method    method to run
+     * @param  invoker   compiled invoker of the method
+     * @param  executor  executor
+     */
+    public ListenerInvocation(final Object target, final Method method, final ListenerInvoker invoker,
+            final Executor executor) {
         this.target = Preconditions.checkNotNull(target, "target");
         this.method = Preconditions.checkNotNull(method, "method");
+        this.invoker = Preconditions.checkNotNull(invoker, "invoker");
         this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.listenerExecutor = (executor instanceof ListenerExecutor) ? (ListenerExecutor) executor : null;
     }
 
     /**
@@ -75,20 +94,28 @@ public class ListenerInvocation {
      */
     public void invoke(final Object event) {
         Preconditions.checkNotNull(event, "event");
-        this.executor.execute(this.buildRunnable(event));
+
+        // synchronous listeners run in place, without wrapping the call
+        if (this.executor == DIRECT_EXECUTOR) {
+            this.invokeNow(event);
+        } else if (this.listenerExecutor != null) {
+            this.listenerExecutor.execute(this, event);
+        } else {
+            this.executor.execute(() -> this.invokeNow(event));
+        }
     }
 
-    private Runnable buildRunnable(final Object event) {
-        return () -> {
-            try {
-                method.invoke(target, event);
-            } catch (final InvocationTargetException e) {
-                LOG.error("Caught exception invoking listener method {} on instance {}", method, target,
-                    e.getTargetException());
-            } catch (final IllegalAccessException e) {
-                LOG.error("Unable to invoke listener method {} on instance {}.", method, target, e);
-            }
-        };
+    /**
+     * Invokes the listener method in the calling thread. Exceptions thrown by the listener are logged.
+     *
+     * @param  event  event to pass to the method
+     */
+    public void invokeNow(final Object event) {
+        try {
+            invoker.invoke(target, event);
+        } catch (final Throwable t) {
+            LOG.error("Caught exception invoking listener method {} on instance {}", method, target, t);
+        }
     }
 
     @Override
@@ -0,0 +1,36 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.notification;
+
+/**
+ * Calls a listener method. Instances are created once per listener method by {@link ListenerInvokerFactory}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@FunctionalInterface
+public interface ListenerInvoker {
+
+    /**
+     * Calls the listener method.
+     *
+     * @param   target  listener instance
+     * @param   event   event to pass to the method
+     *
+     * @throws  Throwable  anything thrown by the listener method
+     */
+    void invoke(Object target, Object event) throws Throwable;
+}
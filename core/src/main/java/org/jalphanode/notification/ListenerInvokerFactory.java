@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.notification;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Compiles listener methods into {@link ListenerInvoker} instances.
+ *
+ * <p>The invoker is generated with {@link LambdaMetafactory}, so calling it costs the same as a direct call through
+ * an interface. The generated class is linked against the class loader of jalphanode, so listeners whose classes are
+ * not visible from it are called through a method handle instead, and methods that cannot be accessed through a
+ * method handle fall back to reflection.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public final class ListenerInvokerFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListenerInvokerFactory.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(ListenerInvoker.class);
+
+    private static final MethodType ERASED_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private ListenerInvokerFactory() { }
+
+    /**
+     * Creates an invoker of a public instance method with one parameter.
+     *
+     * @param   method  listener method
+     *
+     * @return  the method invoker
+     */
+    public static ListenerInvoker newInstance(final Method method) {
+        Preconditions.checkNotNull(method, "method");
+
+        final MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            LOG.debug("Method {} is not accessible through a method handle, using reflection", method, e);
+            return reflectiveInvoker(method);
+        }
+
+        final Class<?> listenerClass = method.getDeclaringClass();
+        final Class<?> eventClass = method.getParameterTypes()[0];
+        if (isVisible(listenerClass) && isVisible(eventClass)) {
+            try {
+                final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "invoke", INVOKER_TYPE, ERASED_TYPE,
+                        handle, MethodType.methodType(void.class, listenerClass, eventClass));
+
+                return (ListenerInvoker) site.getTarget().invokeExact();
+            } catch (Throwable t) {
+                LOG.debug("Could not generate invoker of method {}, using a method handle", method, t);
+            }
+        }
+
+        final MethodHandle erased = handle.asType(ERASED_TYPE);
+        return (target, event) -> erased.invokeExact(target, event);
+    }
+
+    private static ListenerInvoker reflectiveInvoker(final Method method) {
+        return (target, event) -> {
+            try {
+                method.invoke(target, event);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+    }
+
+    private static boolean isVisible(final Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, ListenerInvokerFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
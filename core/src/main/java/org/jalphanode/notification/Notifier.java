@@ -15,6 +15,7 @@
  */
 package org.jalphanode.notification;
 
+import java.lang.annotation.Annotation;
 import java.util.List;
 
 import org.jalphanode.cluster.NodeAddress;
@@ -45,15 +46,33 @@ public interface Notifier extends Listenable {
     /**
      * Listener called before running the task.
      *
-     * @param  taskName  task name
+     * @param  taskName       task name
+     * @param  scheduledTime  the time the task was scheduled to fire, in milliseconds since the epoch
+     * @param  startTime      the time the task started, in milliseconds since the epoch
+     * @param  nodeAddress    the address of the node running the task
      */
-    void beforeTask(String taskName);
+    void beforeTask(String taskName, long scheduledTime, long startTime, NodeAddress nodeAddress);
 
     /**
      * Listener called after running the task.
      *
-     * @param  taskName  task name
+     * @param  taskName       task name
+     * @param  scheduledTime  the time the task was scheduled to fire, in milliseconds since the epoch
+     * @param  startTime      the time the task started, in milliseconds since the epoch
+     * @param  duration       how long the task ran, in nanoseconds
+     * @param  exception      the exception thrown by the task, or null if it succeeded
+     * @param  nodeAddress    the address of the node running the task
      */
-    void afterTask(String taskName);
+    void afterTask(String taskName, long scheduledTime, long startTime, long duration, Throwable exception,
+            NodeAddress nodeAddress);
 
+    /**
+     * Checks whether any listener is registered for an event type. Notifications of event types without listeners
+     * are dropped before any event is built.
+     *
+     * @param   annotation  the event annotation, for instance {@link org.jalphanode.annotation.BeforeTask}
+     *
+     * @return  true if at least one listener is registered for the event type
+     */
+    boolean hasListeners(Class<? extends Annotation> annotation);
 }
@@ -43,9 +43,9 @@ public class NotifierImpl extends AbstractListener implements Notifier {
 
     private final Map<Class<? extends Annotation>, Class<?>> allowedListeners = ImmutableMap
             .<Class<? extends Annotation>, Class<?>>of(    //
-                ViewChanged.class, ViewChangedEvent.class, //
-                BeforeTask.class, Event.class,             //
-                AfterTask.class, Event.class);
+                ViewChanged.class, ViewChangedEvent.class,  //
+                BeforeTask.class, TaskExecutionEvent.class, //
+                AfterTask.class, TaskExecutionEvent.class);
 
     private final Map<Class<? extends Annotation>, List<ListenerInvocation>> listeners = ImmutableMap.of(
             ViewChanged.class, this.viewChangedListeners,  //
@@ -77,6 +77,10 @@ public class NotifierImpl extends AbstractListener implements Notifier {
             final List<NodeAddress> oldMembers, final NodeAddress myAddress, final NodeAddress masterAddress,
             final boolean isMaster) {
 
+        if (this.viewChangedListeners.isEmpty()) {
+            return;
+        }
+
         final EventImpl event = new EventImpl(nodeName, clusterName, myAddress, masterAddress, members, oldMembers,
                 isMaster);
 
@@ -84,17 +88,32 @@ public class NotifierImpl extends AbstractListener implements Notifier {
     }
 
     @Override
-    public void beforeTask(final String taskName) {
-        this.dispatchTask(taskName, this.beforeTaskRunListeners);
+    public void beforeTask(final String taskName, final long scheduledTime, final long startTime,
+            final NodeAddress nodeAddress) {
+
+        if (this.beforeTaskRunListeners.isEmpty()) {
+            return;
+        }
+
+        final TaskExecutionEvent event = new TaskExecutionEventImpl(taskName, scheduledTime, startTime, 0,
+                TaskExecutionEvent.Outcome.RUNNING, null, nodeAddress);
+
+        this.invokeListeners(this.beforeTaskRunListeners, event);
     }
 
     @Override
-    public void afterTask(final String taskName) {
-        this.dispatchTask(taskName, this.afterTaskRunListeners);
-    }
+    public void afterTask(final String taskName, final long scheduledTime, final long startTime, final long duration,
+            final Throwable exception, final NodeAddress nodeAddress) {
+
+        if (this.afterTaskRunListeners.isEmpty()) {
+            return;
+        }
+
+        final TaskExecutionEvent.Outcome outcome = (exception == null) ? TaskExecutionEvent.Outcome.SUCCEEDED
+                                                                       : TaskExecutionEvent.Outcome.FAILED;
+        final TaskExecutionEvent event = new TaskExecutionEventImpl(taskName, scheduledTime, startTime, duration,
+                outcome, exception, nodeAddress);
 
-    private void dispatchTask(final String taskName, final Iterable<ListenerInvocation> listeners) {
-        final EventImpl event = new EventImpl(taskName, null, null, null, null, null, null);
-        this.invokeListeners(listeners, event);
+        this.invokeListeners(this.afterTaskRunListeners, event);
     }
 }
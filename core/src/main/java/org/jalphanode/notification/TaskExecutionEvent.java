@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.notification;
+
+import org.jalphanode.cluster.NodeAddress;
+
+/**
+ * This event is passed in to any method annotated with {@link org.jalphanode.annotation.BeforeTask} or
+ * {@link org.jalphanode.annotation.AfterTask}. The component name is the name of the task.
+ *
+ * <p>Events are immutable, so the same instance is handed to every listener of a firing, synchronous or not.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public interface TaskExecutionEvent extends Event {
+
+    /**
+     * Outcome of a task execution.
+     */
+    enum Outcome {
+
+        /**
+         * The task is about to run, reported to {@link org.jalphanode.annotation.BeforeTask} listeners.
+         */
+        RUNNING,
+
+        /**
+         * The task completed normally.
+         */
+        SUCCEEDED,
+
+        /**
+         * The task threw an exception.
+         */
+        FAILED
+    }
+
+    /**
+     * Gets the time the task was scheduled to fire.
+     *
+     * @return  the scheduled time, in milliseconds since the epoch
+     */
+    long getScheduledTime();
+
+    /**
+     * Gets the time the task actually started.
+     *
+     * @return  the start time, in milliseconds since the epoch
+     */
+    long getStartTime();
+
+    /**
+     * Gets how long the task ran. Zero while the task is running.
+     *
+     * @return  the duration in nanoseconds
+     */
+    long getDuration();
+
+    /**
+     * Gets the outcome of the execution.
+     *
+     * @return  the outcome
+     */
+    Outcome getOutcome();
+
+    /**
+     * Gets the exception thrown by the task.
+     *
+     * @return  the exception thrown by the task, or null if it did not fail
+     */
+    Throwable getException();
+
+    /**
+     * Gets the address of the node running the task.
+     *
+     * @return  the node address
+     */
+    NodeAddress getNodeAddress();
+}
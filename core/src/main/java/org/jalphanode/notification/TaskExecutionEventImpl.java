@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.notification;
+
+import org.jalphanode.cluster.NodeAddress;
+
+/**
+ * Immutable task execution event.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class TaskExecutionEventImpl implements TaskExecutionEvent {
+
+    private final String taskName;
+    private final long scheduledTime;
+    private final long startTime;
+    private final long duration;
+    private final Outcome outcome;
+    private final Throwable exception;
+    private final NodeAddress nodeAddress;
+
+    /**
+     * Creates a new immutable event.
+     *
+     * @param  taskName       the name of the task
+     * @param  scheduledTime  the scheduled time, in milliseconds since the epoch
+     * @param  startTime      the start time, in milliseconds since the epoch
+     * @param  duration       the duration in nanoseconds
+     * @param  outcome        the outcome of the execution
+     * @param  exception      the exception thrown by the task, if any
+     * @param  nodeAddress    the address of the node running the task
+     */
+    public TaskExecutionEventImpl(final String taskName, final long scheduledTime, final long startTime,
+            final long duration, final Outcome outcome, final Throwable exception, final NodeAddress nodeAddress) {
+        this.taskName = taskName;
+        this.scheduledTime = scheduledTime;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.outcome = outcome;
+        this.exception = exception;
+        this.nodeAddress = nodeAddress;
+    }
+
+    @Override
+    public String getComponentName() {
+        return this.taskName;
+    }
+
+    @Override
+    public long getScheduledTime() {
+        return this.scheduledTime;
+    }
+
+    @Override
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    @Override
+    public long getDuration() {
+        return this.duration;
+    }
+
+    @Override
+    public Outcome getOutcome() {
+        return this.outcome;
+    }
+
+    @Override
+    public Throwable getException() {
+        return this.exception;
+    }
+
+    @Override
+    public NodeAddress getNodeAddress() {
+        return this.nodeAddress;
+    }
+}
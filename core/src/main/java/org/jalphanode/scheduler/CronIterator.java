@@ -15,43 +15,76 @@
  */
 package org.jalphanode.scheduler;
 
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
-
-import java.util.BitSet;
-import java.util.Calendar;
-import java.util.Collections;
-import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.List;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Cron iterator. The pattern is a list of six single space-separated fields: representing second, minute, hour, day,
  * month, weekday. Month and weekday names can be given as the first three letters of the English names.
  *
+ * <p>Each field is compiled into a bitmask and the search runs over wall clock epoch seconds, so computing the next
+ * execution time does not allocate. Wall clock times are resolved in the configured {@link TimeZone} the same way
+ * {@link java.util.GregorianCalendar} does: an ambiguous time (daylight saving overlap) maps to its later occurrence
+ * and a time inside a daylight saving gap is shifted forward and searched again.</p>
+ *
+ * <p>Instances are immutable and can be shared between tasks, {@link #compile(String, TimeZone)} returns the same
+ * instance for the same expression and time zone.</p>
+ *
  * @author   ribeirux
  * @version  $Revision$
  */
-public class CronIterator implements ScheduleIterator {
-
-    private static final int MAX_DAYS = 366;
+public class CronIterator implements EpochScheduleIterator {
 
     private static final int MAX_DAYS_MONTH = 31;
 
     private static final int NUMBER_MONTHS = 12;
 
-    private final BitSet seconds = new BitSet(60);
+    private static final int MAX_YEARS = 4;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private static final int SECONDS_PER_HOUR = 3600;
 
-    private final BitSet minutes = new BitSet(60);
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    /**
+     * Days from 0000-03-01 to 1970-01-01.
+     */
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    /**
+     * Compiled iterators, held while some task still uses them.
+     */
+    private static final Cache<Key, CronIterator> COMPILED = CacheBuilder.newBuilder().weakValues().build();
 
-    private final BitSet hours = new BitSet(24);
+    private final long seconds;
 
-    private final BitSet daysOfWeek = new BitSet(7);
+    private final long minutes;
 
-    private final BitSet daysOfMonth = new BitSet(31);
+    private final long hours;
 
-    private final BitSet months = new BitSet(12);
+    private final long daysOfWeek;
+
+    private final long daysOfMonth;
+
+    private final long months;
+
+    /**
+     * Days of month falling on one of {@link #daysOfWeek}, indexed by the day of week of the first day of the month.
+     */
+    private final long[] daysOfWeekByFirstDay = new long[7];
 
     private final String expression;
 
@@ -78,8 +111,53 @@ public class CronIterator implements ScheduleIterator {
      */
     public CronIterator(final String expression, final TimeZone timeZone) throws SchedulerParseException {
         this.expression = Preconditions.checkNotNull(expression, "expression");
-        this.timeZone = Preconditions.checkNotNull(timeZone, "timeZone");
-        this.parse(expression);
+        this.timeZone = (TimeZone) Preconditions.checkNotNull(timeZone, "timeZone").clone();
+
+        final String[] fields = expression.split(" ");
+        if (fields.length != 6) {
+            throw new SchedulerParseException(String.format("Cron expression must consist of 6 fields (found %d in %s)",
+                    fields.length, expression));
+        }
+
+        this.seconds = this.getNumberHits(fields[0], 0, 60);
+        this.minutes = this.getNumberHits(fields[1], 0, 60);
+        this.hours = this.getNumberHits(fields[2], 0, 24);
+        this.daysOfMonth = this.getDaysOfMonth(fields[3]);
+        this.months = this.getMonths(fields[4]);
+        this.daysOfWeek = this.getDaysOfWeek(fields[5]);
+
+        for (int firstDay = 0; firstDay < 7; firstDay++) {
+            for (int dayOfMonth = 1; dayOfMonth <= CronIterator.MAX_DAYS_MONTH; dayOfMonth++) {
+                if ((this.daysOfWeek & (1L << ((firstDay + dayOfMonth - 1) % 7))) != 0) {
+                    this.daysOfWeekByFirstDay[firstDay] |= 1L << dayOfMonth;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the compiled iterator for the specified pattern and timeZone, parsing the pattern only if no task is
+     * already using it.
+     *
+     * @param   expression  a space-separated list of time fields
+     * @param   timeZone    the TimeZone to use for generated trigger times
+     *
+     * @return  the shared iterator
+     *
+     * @throws  SchedulerParseException  thrown if the pattern cannot be parse
+     */
+    public static CronIterator compile(final String expression, final TimeZone timeZone)
+        throws SchedulerParseException {
+        final Key key = new Key(Preconditions.checkNotNull(expression, "expression"),
+                (TimeZone) Preconditions.checkNotNull(timeZone, "timeZone").clone());
+
+        try {
+            return CronIterator.COMPILED.get(key, () -> new CronIterator(key.expression, key.timeZone));
+        } catch (final ExecutionException e) {
+            throw (SchedulerParseException) e.getCause();
+        } catch (final UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
     }
 
     /**
@@ -94,195 +172,198 @@ public class CronIterator implements ScheduleIterator {
     /**
      * Gets the timeZone property.
      *
-     * @return  the timeZone property
+     * @return  a copy of the timeZone property
      */
     public TimeZone getTimeZone() {
-        return this.timeZone;
+        return (TimeZone) this.timeZone.clone();
     }
 
     /**
-     * Get the next {@link Date} in the sequence matching the Cron pattern and after the value provided. The return
-     * value will have a whole number of seconds, and will be after the input value.
+     * Get the next time in the sequence matching the Cron pattern and after the value provided, both expressed in
+     * milliseconds since the epoch. The return value will have a whole number of seconds, and will be after the input
+     * value.
      *
-     * @param   date  a seed value
+     * @param   epochMillis  a seed value
      *
      * @return  the next value matching the pattern
      */
     @Override
-    public Date next(final Date date) {
+    public long nextEpochMillis(final long epochMillis) {
         /*
          * The plan:
          *
-         * 1 Round up to the next whole second
-         *
-         * 2 If seconds match move on, otherwise find the next match:
-         * 2.1 If next match is in the next minute then roll forwards
-         *
-         * 3 If minute matches move on, otherwise find the next match
-         * 3.1 If next match is in the next hour then roll forwards
-         * 3.2 Reset the seconds and go to 2
+         * 1 Round up to the next whole second in wall clock time
          *
-         * 4 If hour matches move on, otherwise find the next match
-         * 4.1 If next match is in the next day then roll forwards,
-         * 4.2 Reset the minutes and seconds and go to 2
+         * 2 Find the next wall clock second matching every field
          *
-         * ...
+         * 3 Resolve it to an instant, if it falls in a daylight saving gap the resolved instant reads a later wall
+         * clock time, so start again from there
          */
 
-        final Calendar calendar = new GregorianCalendar();
-        calendar.setTimeZone(this.timeZone);
-        calendar.setTime(date);
-
-        // Truncate to the next whole second
-        calendar.add(Calendar.SECOND, 1);
-        calendar.set(Calendar.MILLISECOND, 0);
-
-        this.doNext(calendar, calendar.get(Calendar.YEAR));
-
-        return calendar.getTime();
-    }
-
-    private void doNext(final Calendar calendar, final int dot) {
-        final List<Integer> resets = Lists.newLinkedList();
-
-        final int second = calendar.get(Calendar.SECOND);
-        final List<Integer> emptyList = Collections.emptyList();
-        final int updateSecond = this.findNext(this.seconds, second, calendar, Calendar.SECOND, Calendar.MINUTE,
-                emptyList);
-        if (second == updateSecond) {
-            resets.add(Calendar.SECOND);
-        }
-
-        final int minute = calendar.get(Calendar.MINUTE);
-        final int updateMinute = this.findNext(this.minutes, minute, calendar, Calendar.MINUTE, Calendar.HOUR_OF_DAY,
-                resets);
-        if (minute == updateMinute) {
-            resets.add(Calendar.MINUTE);
-        } else {
-            this.doNext(calendar, dot);
-        }
-
-        final int hour = calendar.get(Calendar.HOUR_OF_DAY);
-        final int updateHour = this.findNext(this.hours, hour, calendar, Calendar.HOUR_OF_DAY, Calendar.DAY_OF_WEEK,
-                resets);
-        if (hour == updateHour) {
-            resets.add(Calendar.HOUR_OF_DAY);
-        } else {
-            this.doNext(calendar, dot);
-        }
+        final long start = epochMillis + CronIterator.MILLIS_PER_SECOND;
+        long wall = Math.floorDiv(start + this.timeZone.getOffset(start), CronIterator.MILLIS_PER_SECOND);
+        final long maxYear = CronIterator.yearOf(Math.floorDiv(wall, CronIterator.SECONDS_PER_DAY))
+                + CronIterator.MAX_YEARS;
+
+        for (;;) {
+            final long match = this.nextWallSecond(wall, maxYear);
+            final long wallMillis = match * CronIterator.MILLIS_PER_SECOND;
+            final long instant = wallMillis - this.getOffsetByWall(wallMillis);
+            final long resolved = Math.floorDiv(instant + this.timeZone.getOffset(instant),
+                    CronIterator.MILLIS_PER_SECOND);
+            if (resolved == match) {
+                return instant;
+            }
 
-        final int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-        final int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
-        final int updateDayOfMonth = this.findNextDay(calendar, this.daysOfMonth, dayOfMonth, this.daysOfWeek,
-                dayOfWeek, resets);
-        if (dayOfMonth == updateDayOfMonth) {
-            resets.add(Calendar.DAY_OF_MONTH);
-        } else {
-            this.doNext(calendar, dot);
+            wall = Math.max(resolved, match + 1);
         }
+    }
 
-        final int month = calendar.get(Calendar.MONTH);
-        final int updateMonth = this.findNext(this.months, month, calendar, Calendar.MONTH, Calendar.YEAR, resets);
-        if (month != updateMonth) {
-            if (calendar.get(Calendar.YEAR) - dot > 4) {
-                throw new IllegalArgumentException("Invalid cron expression " + expression
+    /**
+     * Finds the first wall clock second, at or after {@code wall}, matching every field.
+     *
+     * @param   wall     wall clock seconds since the epoch
+     * @param   maxYear  the last year to search
+     *
+     * @return  the next matching wall clock second
+     */
+    private long nextWallSecond(final long wall, final long maxYear) {
+        long current = wall;
+        for (;;) {
+            final long day = Math.floorDiv(current, CronIterator.SECONDS_PER_DAY);
+            final long date = CronIterator.civilDate(day);
+            final long year = date >> 9;
+            final int month = (int) (date >> 5) & 0xF;
+            final int dayOfMonth = (int) date & 0x1F;
+
+            if (year > maxYear) {
+                throw new IllegalArgumentException("Invalid cron expression " + this.expression
                         + " led to runaway search for next trigger");
             }
 
-            this.doNext(calendar, dot);
-        }
-
-    }
+            if ((this.months & (1L << month)) == 0) {
+                final long nextMonths = this.months & (-1L << (month + 1));
+                if (nextMonths == 0) {
+                    current = CronIterator.epochDay(year + 1, Long.numberOfTrailingZeros(this.months), 1)
+                            * CronIterator.SECONDS_PER_DAY;
+                } else {
+                    current = CronIterator.epochDay(year, Long.numberOfTrailingZeros(nextMonths), 1)
+                            * CronIterator.SECONDS_PER_DAY;
+                }
 
-    private int findNextDay(final Calendar calendar, final BitSet daysOfMonth, final int dayOfMonth,
-            final BitSet daysOfWeek, final int dayOfWeek, final Iterable<Integer> resets) {
+                continue;
+            }
 
-        int count = 0;
+            // 1970-01-01 was a Thursday, and Sunday is 0 in the cron pattern
+            final int dayOfWeek = (int) Math.floorMod(day + 4, 7);
+            if (((this.daysOfMonth & (1L << dayOfMonth)) == 0) || ((this.daysOfWeek & (1L << dayOfWeek)) == 0)) {
+
+                // jump to the next matching day of this month, or to the first day of the next month
+                final int length = CronIterator.lengthOfMonth(year, month);
+                final int firstDay = Math.floorMod(dayOfWeek - dayOfMonth + 1, 7);
+                final long nextDays = this.daysOfMonth & this.daysOfWeekByFirstDay[firstDay]
+                        & (-1L >>> (63 - length)) & (-1L << (dayOfMonth + 1));
+                current = (nextDays == 0)
+                    ? ((day + (length - dayOfMonth) + 1) * CronIterator.SECONDS_PER_DAY)
+                    : ((day + (Long.numberOfTrailingZeros(nextDays) - dayOfMonth)) * CronIterator.SECONDS_PER_DAY);
+                continue;
+            }
 
-        int nextDay = dayOfMonth;
-        int currentDayOfWeek = dayOfWeek;
+            final long dayStart = day * CronIterator.SECONDS_PER_DAY;
+            final int secondOfDay = (int) (current - dayStart);
+            final int hour = secondOfDay / CronIterator.SECONDS_PER_HOUR;
+            if ((this.hours & (1L << hour)) == 0) {
+                final long nextHours = this.hours & (-1L << hour);
+                current = (nextHours == 0)
+                    ? (dayStart + CronIterator.SECONDS_PER_DAY)
+                    : (dayStart + (Long.numberOfTrailingZeros(nextHours) * CronIterator.SECONDS_PER_HOUR));
+                continue;
+            }
 
-        // the DAY_OF_WEEK values in java.util.Calendar start with 1 (Sunday),
-        // but in the cron pattern, they start with 0, so we subtract 1 here
-        boolean bit = daysOfMonth.get(dayOfMonth);
-        while ((!bit || !daysOfWeek.get(currentDayOfWeek - 1)) && (count++ < CronIterator.MAX_DAYS)) {
-            calendar.add(Calendar.DAY_OF_MONTH, 1);
-            nextDay = calendar.get(Calendar.DAY_OF_MONTH);
-            currentDayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+            final long hourStart = dayStart + (hour * CronIterator.SECONDS_PER_HOUR);
+            final int minute = (int) (current - hourStart) / CronIterator.SECONDS_PER_MINUTE;
+            if ((this.minutes & (1L << minute)) == 0) {
+                final long nextMinutes = this.minutes & (-1L << minute);
+                current = (nextMinutes == 0)
+                    ? (hourStart + CronIterator.SECONDS_PER_HOUR)
+                    : (hourStart + (Long.numberOfTrailingZeros(nextMinutes) * CronIterator.SECONDS_PER_MINUTE));
+                continue;
+            }
 
-            this.reset(calendar, resets);
-        }
+            final long minuteStart = hourStart + (minute * CronIterator.SECONDS_PER_MINUTE);
+            final int second = (int) (current - minuteStart);
+            if ((this.seconds & (1L << second)) == 0) {
+                final long nextSeconds = this.seconds & (-1L << second);
+                current = (nextSeconds == 0)
+                    ? (minuteStart + CronIterator.SECONDS_PER_MINUTE)
+                    : (minuteStart + Long.numberOfTrailingZeros(nextSeconds));
+                continue;
+            }
 
-        if (count >= CronIterator.MAX_DAYS) {
-            throw new IllegalArgumentException("Overflow in day for expression=" + this.expression);
+            return current;
         }
-
-        return nextDay;
     }
 
     /**
-     * Search the bits provided for the next set bit after the value provided, and reset the calendar.
+     * Gets the offset from UTC of a wall clock time, resolving overlaps to the later instant and gaps to the offset in
+     * effect before the transition, as {@link java.util.GregorianCalendar} does.
      *
-     * @param   bits         a {@link BitSet} representing the allowed values of the field
-     * @param   value        the current value of the field
-     * @param   calendar     the calendar to increment as we move through the bits
-     * @param   field        the field to increment in the calendar (@see {@link Calendar} for the static constants
-     *                       defining valid fields)
-     * @param   lowerOrders  the Calendar field ids that should be reset (i.e. the ones of lower significance than the
-     *                       field of interest)
+     * @param   wallMillis  wall clock milliseconds since the epoch
      *
-     * @return  the value of the calendar field that is next in the sequence
+     * @return  the offset to subtract from the wall clock time
      */
-    private int findNext(final BitSet bits, final int value, final Calendar calendar, final int field,
-            final int nextField, final Iterable<Integer> lowerOrders) {
-        int nextValue = bits.nextSetBit(value);
-
-        // roll over if needed
-        if (nextValue == -1) {
-            calendar.add(nextField, 1);
-            this.reset(calendar, Collections.singletonList(field));
-            nextValue = bits.nextSetBit(0);
-        }
-
-        if (nextValue != value) {
-            calendar.set(field, nextValue);
-            this.reset(calendar, lowerOrders);
+    private int getOffsetByWall(final long wallMillis) {
+        final int before = this.timeZone.getOffset(wallMillis - CronIterator.MILLIS_PER_DAY);
+        final int after = this.timeZone.getOffset(wallMillis + CronIterator.MILLIS_PER_DAY);
+        if ((before == after) || (this.timeZone.getOffset(wallMillis - after) == after)) {
+            return after;
         }
 
-        return nextValue;
+        return before;
     }
 
     /**
-     * Reset the calendar setting all the fields provided to zero.
+     * Converts an epoch day to a proleptic Gregorian date packed as {@code year << 9 | month << 5 | day}.
      */
-    private void reset(final Calendar calendar, final Iterable<Integer> fields) {
-        fields.forEach(field -> calendar.set(field, (field == Calendar.DAY_OF_MONTH) ? 1 : 0));
+    private static long civilDate(final long epochDay) {
+        final long z = epochDay + CronIterator.DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(z, CronIterator.DAYS_PER_CYCLE);
+        final int dayOfEra = (int) (z - (era * CronIterator.DAYS_PER_CYCLE));
+        final int yearOfEra = (dayOfEra - (dayOfEra / 1460) + (dayOfEra / 36524) - (dayOfEra / 146096)) / 365;
+        final int dayOfYear = dayOfEra - ((365 * yearOfEra) + (yearOfEra / 4) - (yearOfEra / 100));
+
+        // months are counted from March so the leap day is the last day of the year
+        final int marchMonth = ((5 * dayOfYear) + 2) / 153;
+        final int day = (dayOfYear - (((153 * marchMonth) + 2) / 5)) + 1;
+        final int month = (marchMonth < 10) ? (marchMonth + 3) : (marchMonth - 9);
+        final long year = yearOfEra + (era * 400) + ((month <= 2) ? 1 : 0);
+
+        return (year << 9) | (month << 5) | day;
     }
 
-    /**
-     * Parse the given pattern expression.
-     */
-    private void parse(final String expression) throws SchedulerParseException {
-        final String[] fields = expression.split(" ");
-
-        if (fields.length != 6) {
-            throw new SchedulerParseException(String.format("Cron expression must consist of 6 fields (found %d in %s)",
-                    fields.length, expression));
+    private static int lengthOfMonth(final long year, final int month) {
+        if (month == 2) {
+            return (((year & 3) == 0) && (((year % 100) != 0) || ((year % 400) == 0))) ? 29 : 28;
         }
 
-        this.setNumberHits(this.seconds, fields[0], 0, 60);
-        this.setNumberHits(this.minutes, fields[1], 0, 60);
-        this.setNumberHits(this.hours, fields[2], 0, 24);
-        this.setDaysOfMonth(this.daysOfMonth, fields[3]);
-        this.setMonths(this.months, fields[4]);
-        this.setDays(this.daysOfWeek, this.replaceOrdinals(fields[5], "SUN,MON,TUE,WED,THU,FRI,SAT"), 8);
+        return ((month == 4) || (month == 6) || (month == 9) || (month == 11)) ? 30 : 31;
+    }
 
-        if (this.daysOfWeek.get(7)) {
+    private static long yearOf(final long epochDay) {
+        return CronIterator.civilDate(epochDay) >> 9;
+    }
 
-            // Sunday can be represented as 0 or 7
-            this.daysOfWeek.set(0);
-            this.daysOfWeek.clear(7);
-        }
+    /**
+     * Converts a proleptic Gregorian date to an epoch day.
+     */
+    private static long epochDay(final long year, final int month, final int day) {
+        final long marchYear = (month <= 2) ? (year - 1) : year;
+        final long era = Math.floorDiv(marchYear, 400);
+        final int yearOfEra = (int) (marchYear - (era * 400));
+        final int dayOfYear = ((((153 * ((month > 2) ? (month - 3) : (month + 9))) + 2) / 5) + day) - 1;
+        final int dayOfEra = (yearOfEra * 365) + (yearOfEra / 4) - (yearOfEra / 100) + dayOfYear;
+
+        return ((era * CronIterator.DAYS_PER_CYCLE) + dayOfEra) - CronIterator.DAYS_0000_TO_1970;
     }
 
     /**
@@ -301,50 +382,52 @@ public class CronIterator implements ScheduleIterator {
         return result;
     }
 
-    private void setDaysOfMonth(final BitSet bits, final String field) throws SchedulerParseException {
+    private long getDaysOfMonth(final String field) throws SchedulerParseException {
+
+        // Days of month start with 1 (in Cron and Calendar) so add one ... and remove it from the front
+        return this.getDays(field, CronIterator.MAX_DAYS_MONTH + 1) & ~1L;
+    }
+
+    private long getDaysOfWeek(final String field) throws SchedulerParseException {
+        long bits = this.getDays(this.replaceOrdinals(field, "SUN,MON,TUE,WED,THU,FRI,SAT"), 8);
+        if ((bits & (1L << 7)) != 0) {
 
-        // Days of month start with 1 (in Cron and Calendar) so add one
-        this.setDays(bits, field, CronIterator.MAX_DAYS_MONTH + 1);
+            // Sunday can be represented as 0 or 7
+            bits = (bits | 1L) & ~(1L << 7);
+        }
 
-        // ... and remove it from the front
-        bits.clear(0);
+        return bits;
     }
 
-    private void setDays(final BitSet bits, final String field, final int max) throws SchedulerParseException {
+    private long getDays(final String field, final int max) throws SchedulerParseException {
         String currentField = field;
         if (currentField.contains("?")) {
             currentField = "*";
         }
 
-        this.setNumberHits(bits, currentField, 0, max);
+        return this.getNumberHits(currentField, 0, max);
     }
 
-    private void setMonths(final BitSet bits, final String value) throws SchedulerParseException {
+    private long getMonths(final String value) throws SchedulerParseException {
 
+        // Months start with 1 in Cron, the bits are indexed by the month number
         final String currentValue = this.replaceOrdinals(value, "FOO,JAN,FEB,MAR,APR,MAY,JUN,JUL,AUG,SEP,OCT,NOV,DEC");
-        final BitSet currentMonths = new BitSet(13);
 
-        // Months start with 1 in Cron and 0 in Calendar, so push the values first into a longer bit set
-        this.setNumberHits(currentMonths, currentValue, 1, CronIterator.NUMBER_MONTHS + 1);
-
-        // ... and then rotate it to the front of the months
-        for (int i = 1; i <= CronIterator.NUMBER_MONTHS; i++) {
-            if (currentMonths.get(i)) {
-                bits.set(i - 1);
-            }
-        }
+        return this.getNumberHits(currentValue, 1, CronIterator.NUMBER_MONTHS + 1);
     }
 
-    private void setNumberHits(final BitSet bits, final String value, final int min, final int max)
-        throws SchedulerParseException {
+    private long getNumberHits(final String value, final int min, final int max) throws SchedulerParseException {
         final String[] fields = value.split(",");
 
+        long bits = 0;
         for (final String field : fields) {
             if (!field.contains("/")) {
 
                 // Not an incrementer so it must be a range (possibly empty)
                 final int[] range = this.getRange(field, min, max);
-                bits.set(range[0], range[1] + 1);
+                for (int i = range[0]; i <= range[1]; i++) {
+                    bits |= 1L << i;
+                }
             } else {
                 final String[] split = field.split("/");
                 if (split.length > 2) {
@@ -358,10 +441,12 @@ public class CronIterator implements ScheduleIterator {
 
                 final int delta = Integer.valueOf(split[1]);
                 for (int i = range[0]; i <= range[1]; i += delta) {
-                    bits.set(i);
+                    bits |= 1L << i;
                 }
             }
         }
+
+        return bits;
     }
 
     private int[] getRange(final String field, final int min, final int max) throws SchedulerParseException {
@@ -397,4 +482,37 @@ public class CronIterator implements ScheduleIterator {
         return result;
     }
 
+    /**
+     * Key of the compiled iterators cache.
+     */
+    private static final class Key {
+
+        private final String expression;
+
+        private final TimeZone timeZone;
+
+        Key(final String expression, final TimeZone timeZone) {
+            this.expression = expression;
+            this.timeZone = timeZone;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            return this.expression.equals(other.expression) && this.timeZone.equals(other.timeZone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.expression, this.timeZone);
+        }
+    }
 }
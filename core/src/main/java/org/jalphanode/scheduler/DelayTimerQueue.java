@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+
+/**
+ * Timer queue backed by a {@link DelayQueue}. Insertion and removal are O(log n) under a single lock.
+ *
+ * @param    <E>  the type of the elements held in this queue
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class DelayTimerQueue<E extends Delayed> implements TimerQueue<E> {
+
+    private final BlockingQueue<E> queue = new DelayQueue<>();
+
+    @Override
+    public void add(final E element) {
+        this.queue.add(element);
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return this.queue.take();
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> collection) {
+        return this.queue.drainTo(collection);
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import java.util.Date;
+import java.util.function.LongConsumer;
+
+/**
+ * Schedule iterator working on primitive milliseconds since the epoch. The {@link Date}, {@link Instant} and
+ * {@link ZonedDateTime} variants are derived from {@link #nextEpochMillis(long)}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ * @see      EpochScheduleIteratorAdapter
+ */
+public interface EpochScheduleIterator extends ScheduleIterator {
+
+    /**
+     * Returned by {@link #nextEpochMillis(long)} when there are no more execution times.
+     */
+    long NO_NEXT = Long.MIN_VALUE;
+
+    /**
+     * Builds the next execution time according the specified time.
+     *
+     * @param   epochMillis  milliseconds since the epoch to begin the search for the next valid time
+     *
+     * @return  the next execution time in milliseconds since the epoch, or {@link #NO_NEXT} if there is none
+     */
+    long nextEpochMillis(long epochMillis);
+
+    /**
+     * Fills {@code times} with the next execution times according the specified time.
+     *
+     * @param   epochMillis  milliseconds since the epoch to begin the search for the next valid times
+     * @param   times        the array receiving the execution times, in milliseconds since the epoch
+     *
+     * @return  the number of execution times written, less than {@code times.length} only if the schedule ends
+     */
+    default int nextEpochMillis(final long epochMillis, final long[] times) {
+        long current = epochMillis;
+        for (int i = 0; i < times.length; i++) {
+            current = this.nextEpochMillis(current);
+            if (current == EpochScheduleIterator.NO_NEXT) {
+                return i;
+            }
+
+            times[i] = current;
+        }
+
+        return times.length;
+    }
+
+    /**
+     * Enumerates the execution times in the range {@code [fromEpochMillis, toEpochMillis)}.
+     *
+     * @param   fromEpochMillis  the start of the range in milliseconds since the epoch, inclusive
+     * @param   toEpochMillis    the end of the range in milliseconds since the epoch, exclusive
+     * @param   consumer         receives each execution time, in milliseconds since the epoch
+     *
+     * @return  the number of execution times in the range
+     */
+    default int forEachEpochMillis(final long fromEpochMillis, final long toEpochMillis,
+            final LongConsumer consumer) {
+        int count = 0;
+        long current = this.nextEpochMillis(fromEpochMillis - 1);
+        while ((current != EpochScheduleIterator.NO_NEXT) && (current < toEpochMillis)) {
+            consumer.accept(current);
+            count++;
+            current = this.nextEpochMillis(current);
+        }
+
+        return count;
+    }
+
+    /**
+     * Builds the next execution time according the specified {@code instant}.
+     *
+     * @param   instant  the instant to begin the search for the next valid instant
+     *
+     * @return  the next execution instant, or {@code null} if there is none
+     */
+    default Instant next(final Instant instant) {
+        final long next = this.nextEpochMillis(instant.toEpochMilli());
+        return (next == EpochScheduleIterator.NO_NEXT) ? null : Instant.ofEpochMilli(next);
+    }
+
+    /**
+     * Builds the next execution time according the specified {@code dateTime}.
+     *
+     * @param   dateTime  the date-time to begin the search for the next valid date-time
+     *
+     * @return  the next execution date-time in the zone of {@code dateTime}, or {@code null} if there is none
+     */
+    default ZonedDateTime next(final ZonedDateTime dateTime) {
+        final Instant next = this.next(dateTime.toInstant());
+        return (next == null) ? null : ZonedDateTime.ofInstant(next, dateTime.getZone());
+    }
+
+    @Override
+    default Date next(final Date date) {
+        final long next = this.nextEpochMillis(date.getTime());
+        return (next == EpochScheduleIterator.NO_NEXT) ? null : new Date(next);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Date;
+
+/**
+ * Exposes a {@link Date} based {@link ScheduleIterator} as an {@link EpochScheduleIterator}.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class EpochScheduleIteratorAdapter implements EpochScheduleIterator {
+
+    private final ScheduleIterator delegate;
+
+    /**
+     * Creates a new adapter.
+     *
+     * @param  delegate  the iterator to adapt
+     */
+    public EpochScheduleIteratorAdapter(final ScheduleIterator delegate) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+    }
+
+    /**
+     * Adapts the specified iterator, unless it already is an {@link EpochScheduleIterator}.
+     *
+     * @param   iterator  the iterator to adapt
+     *
+     * @return  an epoch schedule iterator for {@code iterator}
+     */
+    public static EpochScheduleIterator adapt(final ScheduleIterator iterator) {
+        Preconditions.checkNotNull(iterator, "iterator");
+
+        if (iterator instanceof EpochScheduleIterator) {
+            return (EpochScheduleIterator) iterator;
+        }
+
+        return new EpochScheduleIteratorAdapter(iterator);
+    }
+
+    /**
+     * Gets the adapted iterator.
+     *
+     * @return  the adapted iterator
+     */
+    public ScheduleIterator getDelegate() {
+        return this.delegate;
+    }
+
+    @Override
+    public long nextEpochMillis(final long epochMillis) {
+        final Date next = this.delegate.next(new Date(epochMillis));
+        return (next == null) ? EpochScheduleIterator.NO_NEXT : next.getTime();
+    }
+
+    @Override
+    public Date next(final Date date) {
+        return this.delegate.next(date);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-delay iterator: the next execution time is a fixed delay after the previous run completes. The scheduler
+ * recognises this iterator and passes it the completion time of the run instead of its scheduled time, so runs of
+ * the task never overlap.
+ *
+ * <p>The delay may be given in any {@link TimeUnit}, down to nanoseconds, and is rounded up to the millisecond the
+ * scheduler works with.</p>
+ *
+ * <p>Instances are immutable and can be shared between tasks.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class FixedDelayIterator implements EpochScheduleIterator {
+
+    private final long delay;
+
+    private final TimeUnit timeUnit;
+
+    private final long delayMillis;
+
+    /**
+     * Creates a new fixed-delay iterator.
+     *
+     * @param  delay     the delay between the end of a run and the next execution time
+     * @param  timeUnit  the time unit of {@code delay}
+     */
+    public FixedDelayIterator(final long delay, final TimeUnit timeUnit) {
+        Preconditions.checkArgument(delay > 0, "delay must be greater than 0");
+        this.delay = delay;
+        this.timeUnit = Preconditions.checkNotNull(timeUnit, "timeUnit");
+
+        // rounded up, so a sub-millisecond delay still waits one millisecond
+        final long millis = timeUnit.toMillis(delay);
+        this.delayMillis = (timeUnit.convert(millis, TimeUnit.MILLISECONDS) < delay) ? (millis + 1) : millis;
+    }
+
+    /**
+     * Gets the delay property.
+     *
+     * @return  the delay property
+     */
+    public long getDelay() {
+        return this.delay;
+    }
+
+    /**
+     * Gets the timeUnit property.
+     *
+     * @return  the timeUnit property
+     */
+    public TimeUnit getTimeUnit() {
+        return this.timeUnit;
+    }
+
+    @Override
+    public long nextEpochMillis(final long epochMillis) {
+        return epochMillis + this.delayMillis;
+    }
+}
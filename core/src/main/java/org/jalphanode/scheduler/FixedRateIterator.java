@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-rate iterator: fires every period, counted from a start time, regardless of how long each run takes.
+ *
+ * <p>The period may be given in any {@link TimeUnit}, down to nanoseconds. Execution times are computed as whole
+ * periods since the start time in nanoseconds and only then rounded up to the millisecond the scheduler works with,
+ * so rounding never accumulates and the schedule does not drift however late a firing runs. Periods shorter than a
+ * millisecond fire at most once per millisecond.</p>
+ *
+ * <p>Instances are immutable and can be shared between tasks.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class FixedRateIterator implements EpochScheduleIterator {
+
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long period;
+
+    private final TimeUnit timeUnit;
+
+    private final long periodNanos;
+
+    private final long startTime;
+
+    /**
+     * Creates a new fixed-rate iterator starting now.
+     *
+     * @param  period    the period between execution times
+     * @param  timeUnit  the time unit of {@code period}
+     */
+    public FixedRateIterator(final long period, final TimeUnit timeUnit) {
+        this(period, timeUnit, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a new fixed-rate iterator.
+     *
+     * @param  period     the period between execution times
+     * @param  timeUnit   the time unit of {@code period}
+     * @param  startTime  the first execution time, in milliseconds since the epoch
+     */
+    public FixedRateIterator(final long period, final TimeUnit timeUnit, final long startTime) {
+        Preconditions.checkArgument(period > 0, "period must be greater than 0");
+        this.period = period;
+        this.timeUnit = Preconditions.checkNotNull(timeUnit, "timeUnit");
+        this.periodNanos = timeUnit.toNanos(period);
+        this.startTime = startTime;
+    }
+
+    /**
+     * Gets the period property.
+     *
+     * @return  the period property
+     */
+    public long getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * Gets the timeUnit property.
+     *
+     * @return  the timeUnit property
+     */
+    public TimeUnit getTimeUnit() {
+        return this.timeUnit;
+    }
+
+    /**
+     * Gets the startTime property.
+     *
+     * @return  the first execution time, in milliseconds since the epoch
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    @Override
+    public long nextEpochMillis(final long epochMillis) {
+        if (epochMillis < this.startTime) {
+            return this.startTime;
+        }
+
+        // first period ending after epochMillis, once rounded up to milliseconds
+        final long elapsedNanos = (epochMillis - this.startTime) * FixedRateIterator.NANOS_PER_MILLI;
+        final long nextNanos = ((elapsedNanos / this.periodNanos) + 1) * this.periodNanos;
+
+        final long nextMillis = (nextNanos + FixedRateIterator.NANOS_PER_MILLI - 1) / FixedRateIterator.NANOS_PER_MILLI;
+
+        return this.startTime + nextMillis;
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical hashed timing wheel. Elements are hashed into the slots of a set of wheels, each wheel covering a range
+ * of time {@code ticksPerWheel} times larger than the previous one. Elements are cascaded to the lower wheel when the
+ * clock reaches their slot, so both insertion and expiry are O(1).
+ *
+ * <p>Elements are added through a lock free queue and moved into the wheels by the consumer thread, hence the wheels
+ * are only touched by the thread calling {@link #take()}. Expiration is accurate to one tick.</p>
+ *
+ * @param    <E>  the type of the elements held in this queue
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class HierarchicalTimingWheel<E extends Delayed> implements TimerQueue<E> {
+
+    private static final int MAX_TICKS_PER_WHEEL = 1 << 16;
+
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final long maxTicks;
+
+    private final Node<E>[][] wheels;
+
+    private final Queue<Node<E>> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<E> expired = new ArrayDeque<>();
+
+    private final long startTime = System.nanoTime();
+
+    // next tick to process
+    private long tick;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param  tickDuration   the duration of each tick
+     * @param  unit           the time unit of the tick duration
+     * @param  ticksPerWheel  the number of slots of each wheel, rounded up to the next power of two
+     * @param  levels         the number of wheels
+     */
+    public HierarchicalTimingWheel(final long tickDuration, final TimeUnit unit, final int ticksPerWheel,
+            final int levels) {
+        Preconditions.checkNotNull(unit, "unit");
+        Preconditions.checkArgument(tickDuration > 0, "tickDuration must be greater than 0: %s", tickDuration);
+        Preconditions.checkArgument((ticksPerWheel > 1) && (ticksPerWheel <= MAX_TICKS_PER_WHEEL),
+            "ticksPerWheel must be between 2 and %s: %s", MAX_TICKS_PER_WHEEL, ticksPerWheel);
+        Preconditions.checkArgument(levels > 0, "levels must be greater than 0: %s", levels);
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheelBits = 32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1);
+        this.wheelMask = (1 << this.wheelBits) - 1;
+
+        Preconditions.checkArgument(this.wheelBits * levels < Long.SIZE - 1, "Too many levels: %s", levels);
+
+        this.maxTicks = (1L << (this.wheelBits * levels)) - 1;
+
+        // generic arrays cannot be created, the slots only ever hold nodes of E
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        final Node<E>[][] slots = new Node[levels][1 << this.wheelBits];
+        this.wheels = slots;
+    }
+
+    @Override
+    public void add(final E element) {
+        Preconditions.checkNotNull(element, "element");
+
+        final long deadline = (System.nanoTime() - this.startTime) + element.getDelay(TimeUnit.NANOSECONDS);
+
+        // round up, so the element never expires before its delay
+        final long expires = Math.max(0, (deadline + this.tickNanos - 1) / this.tickNanos);
+        this.pending.add(new Node<>(element, expires));
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        for (;;) {
+            final E element = this.expired.poll();
+            if (element != null) {
+                return element;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            final long sleep = (this.tick * this.tickNanos) - (System.nanoTime() - this.startTime);
+            if (sleep > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+
+            this.transferPending();
+            this.advance();
+        }
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> collection) {
+        int count = 0;
+        E element = this.expired.poll();
+        while (element != null) {
+            collection.add(element);
+            count++;
+            element = this.expired.poll();
+        }
+
+        return count;
+    }
+
+    private void transferPending() {
+        Node<E> node = this.pending.poll();
+        while (node != null) {
+            this.place(node);
+            node = this.pending.poll();
+        }
+    }
+
+    private void place(final Node<E> node) {
+        long delta = node.expires - this.tick;
+
+        if (delta < 0) {
+            this.expired.add(node.element);
+            return;
+        }
+
+        // the element is beyond the range of the wheels: park it in the last slot it can reach and recompute its
+        // position when cascaded
+        long expires = node.expires;
+        if (delta > this.maxTicks) {
+            delta = this.maxTicks;
+            expires = this.tick + this.maxTicks;
+        }
+
+        int level = 0;
+        while ((level < this.wheels.length - 1) && (delta >= (1L << (this.wheelBits * (level + 1))))) {
+            level++;
+        }
+
+        final Node<E>[] wheel = this.wheels[level];
+        final int slot = (int) ((expires >>> (this.wheelBits * level)) & this.wheelMask);
+        node.next = wheel[slot];
+        wheel[slot] = node;
+    }
+
+    private void advance() {
+
+        // when the lower wheel completes a revolution, the current slot of the upper wheel is redistributed
+        int level = 1;
+        while ((level < this.wheels.length)
+                && (((this.tick >>> (this.wheelBits * (level - 1))) & this.wheelMask) == 0)) {
+            final int slot = (int) ((this.tick >>> (this.wheelBits * level)) & this.wheelMask);
+            Node<E> node = this.wheels[level][slot];
+            this.wheels[level][slot] = null;
+
+            while (node != null) {
+                final Node<E> next = node.next;
+                node.next = null;
+                this.place(node);
+                node = next;
+            }
+
+            level++;
+        }
+
+        final int slot = (int) (this.tick & this.wheelMask);
+        Node<E> node = this.wheels[0][slot];
+        this.wheels[0][slot] = null;
+        while (node != null) {
+            this.expired.add(node.element);
+            node = node.next;
+        }
+
+        this.tick++;
+    }
+
+    private static final class Node<E> {
+
+        private final E element;
+        private final long expires;
+        private Node<E> next;
+
+        Node(final E element, final long expires) {
+            this.element = element;
+            this.expires = expires;
+        }
+    }
+
+}
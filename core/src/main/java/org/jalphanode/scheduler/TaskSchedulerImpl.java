@@ -18,41 +18,102 @@ package org.jalphanode.scheduler;
 import com.google.common.base.Preconditions;
 import com.google.inject.Inject;
 import org.jalphanode.annotation.SchedulerExecutor;
+import org.jalphanode.cluster.FencingCheck;
 import org.jalphanode.cluster.MembershipManager;
+import org.jalphanode.cluster.NodeAddress;
+import org.jalphanode.cluster.ScheduleStateRegistry;
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.MisfirePolicy;
+import org.jalphanode.config.OverlapPolicy;
 import org.jalphanode.config.TaskConfig;
+import org.jalphanode.config.TaskSchedulerConfig;
+import org.jalphanode.config.TypedPropertiesConfig;
 import org.jalphanode.notification.Notifier;
+import org.jalphanode.stats.SchedulingLag;
+import org.jalphanode.stats.TaskMetricsListener;
+import org.jalphanode.stats.TaskStatistics;
+import org.jalphanode.stats.TaskStatisticsRegistry;
+import org.jalphanode.task.TaskContext;
+import org.jalphanode.util.VirtualThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Date;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.DelayQueue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class TaskSchedulerImpl implements TaskScheduler, Runnable {
+public class TaskSchedulerImpl implements TaskScheduler {
 
     private static final Logger LOG = LoggerFactory.getLogger(TaskSchedulerImpl.class);
 
-    private final BlockingQueue<RecurrentTask> queue = new DelayQueue<>();
+    protected static final String TICK_DURATION_PROPERTY = "tickDuration";
+    protected static final long DEFAULT_TICK_DURATION = 10;
+
+    protected static final String TICKS_PER_WHEEL_PROPERTY = "ticksPerWheel";
+    protected static final int DEFAULT_TICKS_PER_WHEEL = 256;
+
+    protected static final String WHEEL_LEVELS_PROPERTY = "wheelLevels";
+    protected static final int DEFAULT_WHEEL_LEVELS = 4;
+
+    protected static final String LANES_PROPERTY = "lanes";
+    protected static final int DEFAULT_LANES = 1;
+
+    protected static final String PARALLELISM_PROPERTY = "parallelism";
+
+    private final Lane[] lanes;
+    private final List<RecurrentTask> tasks = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private final int batchWorkers;
 
     private volatile boolean running = true;
 
     private final Executor executor;
     private final MembershipManager membershipManager;
+    private final ScheduleStateRegistry scheduleStates;
     private final Notifier notifier;
-
-    private final Thread runner;
+    private final TaskStatisticsRegistry statisticsRegistry;
+    private final SchedulingLag schedulingLag;
+    private final TaskMetricsListener metricsListener;
+    private final FencingCheck fencingCheck;
 
     @Inject
-    public TaskSchedulerImpl(@SchedulerExecutor final Executor executor, final MembershipManager membershipManager,
-            final Notifier notifier) {
+    public TaskSchedulerImpl(final JAlphaNodeConfig config, @SchedulerExecutor final Executor executor,
+            final MembershipManager membershipManager, final ScheduleStateRegistry scheduleStates,
+            final Notifier notifier, final TaskStatisticsRegistry statisticsRegistry,
+            final SchedulingLag schedulingLag, final TaskMetricsListener metricsListener,
+            final FencingCheck fencingCheck) {
+        final TaskSchedulerConfig schedulerConfig = Preconditions.checkNotNull(config, "config").getTaskScheduler();
         this.executor = Preconditions.checkNotNull(executor, "executor");
         this.membershipManager = Preconditions.checkNotNull(membershipManager, "membershipManager");
+        this.scheduleStates = Preconditions.checkNotNull(scheduleStates, "scheduleStates");
         this.notifier = Preconditions.checkNotNull(notifier, "notifier");
-        this.runner = new Thread(this, "Runner thread");
-        runner.start();
+        this.statisticsRegistry = Preconditions.checkNotNull(statisticsRegistry, "statisticsRegistry");
+        this.schedulingLag = Preconditions.checkNotNull(schedulingLag, "schedulingLag");
+        this.metricsListener = Preconditions.checkNotNull(metricsListener, "metricsListener");
+        this.fencingCheck = Preconditions.checkNotNull(fencingCheck, "fencingCheck");
+        this.batchWorkers = getBatchWorkers(schedulerConfig);
+
+        final int laneCount = schedulerConfig.getProperties().getIntProperty(LANES_PROPERTY, DEFAULT_LANES);
+        Preconditions.checkArgument(laneCount > 0, "lanes must be greater than 0");
+
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            final String threadName = (laneCount == 1) ? "Runner thread" : "Runner thread-" + i;
+            lanes[i] = new Lane(newTimerQueue(schedulerConfig), threadName);
+        }
+
+        for (Lane lane : lanes) {
+            lane.runner.start();
+        }
+
+        scheduleStates.addOwnersListener(this::catchUp);
     }
 
     @Override
@@ -60,48 +121,236 @@ public class TaskSchedulerImpl implements TaskScheduler, Runnable {
         Preconditions.checkNotNull(task, "task");
 
         // TODO return future
-        new RecurrentTask(task).schedule();
+        final Lane lane = lanes[Math.floorMod(nextLane.getAndIncrement(), lanes.length)];
+        final RecurrentTask recurrentTask = new RecurrentTask(task, lane.queue);
+        tasks.add(recurrentTask);
+        recurrentTask.schedule();
     }
 
     @Override
     public void stop() {
         running = false;
-        runner.interrupt();
+        for (Lane lane : lanes) {
+            lane.runner.interrupt();
+        }
     }
 
-    @Override
-    public void run() {
-        try {
-            while (running) {
-                RecurrentTask task = queue.take();
-                try {
-                    if (membershipManager.isMasterNode()) {
-                        executor.execute(task);
-                    } else {
+    /**
+     * Hands the fire times missed by the previous owners of the tasks this node took over to their lanes, which fire
+     * them like any other, according to the misfire policy and the catch-up rate.
+     */
+    private void catchUp() {
+        final long now = System.currentTimeMillis();
+        for (RecurrentTask task : tasks) {
+            final String taskName = task.taskConfig.getTaskName();
+            final long missedTime = scheduleStates.getMissedFireTime(taskName, now);
+            if ((missedTime == EpochScheduleIterator.NO_NEXT) || !membershipManager.isTaskOwner(taskName)) {
+                continue;
+            }
+
+            LOG.info("Task {} missed its fire time {} while changing owner", taskName, missedTime);
+
+            task.queue.add(new Timeout(task, now, missedTime, 0));
+        }
+    }
+
+    private static int getBatchWorkers(final TaskSchedulerConfig schedulerConfig) {
+        switch (schedulerConfig.getExecutor()) {
+
+            case VIRTUAL_THREAD:
+
+                // virtual threads are cheap, so batches are not folded onto a few workers, unless the executor fell
+                // back to a thread pool
+                if (VirtualThreadFactory.isSupported()) {
+                    return Integer.MAX_VALUE;
+                }
+
+                return Math.max(1, schedulerConfig.getPoolSize());
 
-                        // if it'not the master, just schedule the task
-                        task.schedule();
+            case FORK_JOIN:
+                return Math.max(1, schedulerConfig.getProperties().getIntProperty(PARALLELISM_PROPERTY,
+                            schedulerConfig.getPoolSize()));
+
+            case THREAD_POOL:
+            default:
+                return Math.max(1, schedulerConfig.getPoolSize());
+        }
+    }
+
+    private static TimerQueue<Timeout> newTimerQueue(final TaskSchedulerConfig schedulerConfig) {
+        switch (schedulerConfig.getEngine()) {
+
+            case TIMING_WHEEL:
+                final TypedPropertiesConfig props = schedulerConfig.getProperties();
+                final long tickDuration = props.getLongProperty(TICK_DURATION_PROPERTY, DEFAULT_TICK_DURATION);
+                final int ticksPerWheel = props.getIntProperty(TICKS_PER_WHEEL_PROPERTY, DEFAULT_TICKS_PER_WHEEL);
+                final int levels = props.getIntProperty(WHEEL_LEVELS_PROPERTY, DEFAULT_WHEEL_LEVELS);
+
+                return new HierarchicalTimingWheel<>(tickDuration, TimeUnit.MILLISECONDS, ticksPerWheel, levels);
+
+            case DELAY_QUEUE:
+            default:
+                return new DelayTimerQueue<>();
+        }
+    }
+
+    /**
+     * Scheduling lane: owns the timer queue of a slice of the tasks and the thread dispatching them.
+     */
+    private class Lane implements Runnable {
+
+        private final TimerQueue<Timeout> queue;
+        private final Thread runner;
+
+        public Lane(final TimerQueue<Timeout> queue, final String threadName) {
+            this.queue = queue;
+            this.runner = new Thread(this, threadName);
+        }
+
+        @Override
+        public void run() {
+            final List<Timeout> batch = new ArrayList<>();
+            final List<Execution> executions = new ArrayList<>();
+            try {
+                while (running) {
+
+                    // every task expiring at the same instant is dispatched as one batch
+                    batch.add(queue.take());
+                    queue.drainTo(batch);
+                    try {
+                        dispatch(batch, executions);
+                    } catch (Throwable t) {
+                        LOG.error("failed submitting task to thread pool", t);
+                    } finally {
+                        batch.clear();
+                        executions.clear();
                     }
-                } catch (Throwable t) {
-                    LOG.error("failed submitting task to thread pool", t);
                 }
+            } catch (InterruptedException interrupted) {
+                LOG.info("Task scheduler interrupted");
+
+                // Restore the interrupted status
+                Thread.currentThread().interrupt();
             }
-        } catch (InterruptedException interrupted) {
-            LOG.info("Task scheduler interrupted");
+        }
+
+        private void dispatch(final List<Timeout> batch, final List<Execution> executions) {
+            final long now = System.currentTimeMillis();
+            final long nanoTime = System.nanoTime();
+            for (Timeout timeout : batch) {
+                final RecurrentTask task = timeout.task;
+                final String taskName = task.taskConfig.getTaskName();
+                if (timeout.missedTime != EpochScheduleIterator.NO_NEXT) {
+
+                    // a fire time missed by the previous owner restarts the schedule, unless it was handled meanwhile
+                    if (!membershipManager.isTaskOwner(taskName)
+                            || (timeout.missedTime <= scheduleStates.getLastFireTime(taskName))
+                            || !task.restartFrom(timeout.missedTime)) {
+                        continue;
+                    }
+                } else if (timeout.generation != task.generation) {
 
-            // Restore the interrupted status
-            Thread.currentThread().interrupt();
+                    // superseded by a restart of the schedule
+                    continue;
+                }
+
+                final long scheduledTime = task.executionTime;
+                if (!membershipManager.isTaskOwner(taskName)
+                        || (scheduledTime <= scheduleStates.getLastFireTime(taskName))) {
+
+                    // another node runs the task, or its previous owner already did, just schedule it
+                    task.schedule();
+                    continue;
+                }
+
+                final Execution execution = task.fire(now, nanoTime);
+                if (execution != null) {
+                    executions.add(execution);
+                }
+            }
+
+            if (executions.isEmpty()) {
+                return;
+            }
+
+            final Runnable command;
+            final int workers;
+            if (executions.size() == 1) {
+                command = executions.get(0);
+                workers = 1;
+            } else {
+                command = new TaskBatch(executions.toArray(new Execution[executions.size()]));
+                workers = Math.min(executions.size(), batchWorkers);
+            }
+
+            try {
+                executor.execute(command);
+            } catch (RuntimeException e) {
+                for (Execution execution : executions) {
+                    execution.abandon();
+                }
+
+                throw e;
+            }
+
+            // once one worker is running it drains the whole batch, so failing to add helpers loses nothing
+            for (int i = 1; i < workers; i++) {
+                try {
+                    executor.execute(command);
+                } catch (RejectedExecutionException e) {
+                    LOG.debug("Executor saturated, batch runs on {} workers", i);
+                    break;
+                }
+            }
         }
     }
 
-    private class RecurrentTask implements Runnable, Delayed {
+    /**
+     * Executions expiring at the same instant. The batch is submitted once per worker, up to the pool size, and each
+     * submission runs executions until the batch is exhausted.
+     */
+    private static class TaskBatch implements Runnable {
 
-        private final TaskConfig taskConfig;
-        private volatile Date executionTime;
+        private final Execution[] executions;
+        private final AtomicInteger next = new AtomicInteger();
 
-        public RecurrentTask(final TaskConfig taskConfig) {
-            this.taskConfig = Preconditions.checkNotNull(taskConfig, "taskConfig");
-            this.executionTime = new Date();
+        public TaskBatch(final Execution[] executions) {
+            this.executions = executions;
+        }
+
+        @Override
+        public void run() {
+            int index = next.getAndIncrement();
+            while (index < executions.length) {
+                try {
+                    executions[index].run();
+                } catch (Throwable t) {
+                    LOG.error("Task execution failed: {}", t.getMessage(), t);
+                }
+
+                index = next.getAndIncrement();
+            }
+        }
+    }
+
+    /**
+     * Entry of a timer queue. The queue cannot remove entries, so an entry superseded by a restart of the schedule of
+     * its task is recognized by its generation and dropped once due.
+     */
+    private static final class Timeout implements Delayed {
+
+        private final RecurrentTask task;
+        private final long dueTime;
+
+        // the fire time missed by the previous owner of the task, or NO_NEXT for a regular firing
+        private final long missedTime;
+        private final int generation;
+
+        public Timeout(final RecurrentTask task, final long dueTime, final long missedTime, final int generation) {
+            this.task = task;
+            this.dueTime = dueTime;
+            this.missedTime = missedTime;
+            this.generation = generation;
         }
 
         /**
@@ -109,38 +358,330 @@ public class TaskSchedulerImpl implements TaskScheduler, Runnable {
          */
         @Override
         public int compareTo(final Delayed o) {
-            final RecurrentTask other = (RecurrentTask) o;
-            return executionTime.compareTo(other.executionTime);
+            final Timeout other = (Timeout) o;
+            return Long.compare(dueTime, other.dueTime);
         }
 
         @Override
         public long getDelay(final TimeUnit unit) {
-            return unit.convert(executionTime.getTime() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+            return unit.convert(dueTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private class RecurrentTask {
+
+        private final TaskConfig taskConfig;
+        private final TimerQueue<Timeout> queue;
+        private final EpochScheduleIterator scheduleIterator;
+        private final TaskStatistics statistics;
+        private final OverlapPolicy overlapPolicy;
+        private final int maxRuns;
+        private final boolean fixedDelay;
+        private final MisfirePolicy misfirePolicy;
+        private final long misfireThreshold;
+        private final long catchUpInterval;
+        private volatile long executionTime;
+
+        // bumped by the lane when the schedule restarts, to drop the timeout scheduled before
+        private volatile int generation;
+
+        // runs in progress, bounded by maxRuns, and the firing deferred until one of them completes
+        private final AtomicInteger activeRuns = new AtomicInteger();
+        private final AtomicReference<Execution> deferred = new AtomicReference<>();
+
+        // set while a missed fire time is caught up, the next one is scheduled once a run completes
+        private final AtomicBoolean catchingUp = new AtomicBoolean();
+        private volatile long catchUpNotBefore;
+
+        public RecurrentTask(final TaskConfig taskConfig, final TimerQueue<Timeout> queue) {
+            this.taskConfig = Preconditions.checkNotNull(taskConfig, "taskConfig");
+            this.queue = queue;
+            this.scheduleIterator = EpochScheduleIteratorAdapter.adapt(taskConfig.getScheduleIterator());
+            this.statistics = statisticsRegistry.getStatistics(taskConfig.getTaskName());
+            this.overlapPolicy = Preconditions.checkNotNull(taskConfig.getOverlapPolicy(), "overlapPolicy");
+            this.maxRuns = (overlapPolicy == OverlapPolicy.CONCURRENT) ? taskConfig.getMaxConcurrent() : 1;
+            Preconditions.checkArgument(maxRuns > 0, "maxConcurrent must be greater than 0");
+            this.fixedDelay = scheduleIterator instanceof FixedDelayIterator;
+            this.misfirePolicy = Preconditions.checkNotNull(taskConfig.getMisfirePolicy(), "misfirePolicy");
+            this.misfireThreshold = taskConfig.getMisfireThreshold();
+            Preconditions.checkArgument(misfireThreshold >= 0, "misfireThreshold must not be negative");
+
+            final int catchUpRate = taskConfig.getCatchUpRate();
+            Preconditions.checkArgument(catchUpRate > 0, "catchUpRate must be greater than 0");
+            this.catchUpInterval = TimeUnit.SECONDS.toMillis(1) / catchUpRate;
+            this.executionTime = System.currentTimeMillis();
+        }
+
+        /**
+         * Fires the task and schedules the next firing, which does not wait for this one to run unless the task has a
+         * fixed delay.
+         *
+         * @param   now       current time in ms
+         * @param   nanoTime  current value of {@link System#nanoTime()}
+         *
+         * @return  the execution to submit, or null if the misfire or overlap policy dropped or deferred it
+         */
+        public Execution fire(final long now, final long nanoTime) {
+            final long scheduledTime = executionTime;
+            final long lateness = now - scheduledTime;
+            if (lateness <= misfireThreshold) {
+                if (!fixedDelay) {
+                    schedule();
+                }
+            } else {
+                statistics.executionMisfired();
+
+                switch (misfirePolicy) {
+
+                    case SKIP_TO_NEXT:
+                        scheduleFrom(now, Long.MIN_VALUE);
+                        return null;
+
+                    case FIRE_ALL_MISSED:
+                        if (!fixedDelay) {
+
+                            // the missed fire times keep their order but are spread out, and the next one waits for
+                            // this one to complete so that none is folded into a deferred run
+                            catchUpNotBefore = now + catchUpInterval;
+                            catchingUp.set(true);
+                        }
+
+                        break;
+
+                    case FIRE_ONCE_NOW:
+                    default:
+                        if (!fixedDelay) {
+                            scheduleFrom(now, Long.MIN_VALUE);
+                        }
+
+                        break;
+                }
+            }
+
+            // skipped firings do not build an execution
+            if (tryAcquire()) {
+                return newExecution(scheduledTime, nanoTime, lateness);
+            }
+
+            if (overlapPolicy != OverlapPolicy.COALESCE) {
+                statistics.executionSkipped();
+                resumeCatchUp();
+                return null;
+            }
+
+            statistics.executionCoalesced();
+            final Execution execution = newExecution(scheduledTime, nanoTime, lateness);
+            deferred.set(execution);
+
+            // the running execution may have completed before the firing was deferred
+            if (tryAcquire()) {
+                return deferred.compareAndSet(execution, null) ? execution : release();
+            }
+
+            return null;
+        }
+
+        /**
+         * Builds the execution of a firing, once fire() scheduled the next one.
+         */
+        private Execution newExecution(final long scheduledTime, final long nanoTime, final long lateness) {
+
+            // the next fire time handed over to the next owner, the current one while missed fire times are caught up
+            final long nextFireTime = fixedDelay ? EpochScheduleIterator.NO_NEXT
+                                                 : ((executionTime != scheduledTime)
+                                                     ? executionTime : scheduleIterator.nextEpochMillis(scheduledTime));
+
+            return new Execution(this, scheduledTime, nextFireTime, nanoTime, TimeUnit.MILLISECONDS.toNanos(lateness));
+        }
+
+        /**
+         * Restarts the schedule from a fire time missed by the previous owner of the task, to be fired next. Fixed
+         * delay tasks never get here, their next fire time is not handed over.
+         *
+         * @param   missedTime  the missed fire time in ms
+         *
+         * @return  false if the task is catching up already and schedules itself once the current run completes
+         */
+        public boolean restartFrom(final long missedTime) {
+            if (catchingUp.get()) {
+                return false;
+            }
+
+            generation++;
+            executionTime = missedTime;
+            return true;
+        }
+
+        private boolean tryAcquire() {
+            int current;
+            do {
+                current = activeRuns.get();
+                if (current >= maxRuns) {
+                    return false;
+                }
+            } while (!activeRuns.compareAndSet(current, current + 1));
+
+            return true;
+        }
+
+        /**
+         * Called when a run completes.
+         *
+         * @return  the deferred execution, which takes over the run slot, or null once the slot is released
+         */
+        private Execution release() {
+            while (true) {
+                final Execution next = deferred.getAndSet(null);
+                if (next != null) {
+                    return next;
+                }
+
+                activeRuns.decrementAndGet();
+                if ((deferred.get() == null) || !tryAcquire()) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Called once the runs started by a firing are over.
+         */
+        private void completed() {
+            if (fixedDelay) {
+
+                // the delay counts from the end of the run
+                scheduleFrom(System.currentTimeMillis(), Long.MIN_VALUE);
+            } else {
+                resumeCatchUp();
+            }
+        }
+
+        /**
+         * Schedules the next missed fire time, once the previous one ran or was dropped.
+         */
+        private void resumeCatchUp() {
+            if (catchingUp.compareAndSet(true, false)) {
+                scheduleFrom(executionTime, catchUpNotBefore);
+            }
+        }
+
+        public void schedule() {
+            scheduleFrom(executionTime, Long.MIN_VALUE);
+        }
+
+        /**
+         * Schedules the first fire time after {@code time}, to be dequeued no earlier than {@code notBefore}.
+         */
+        private void scheduleFrom(final long time, final long notBefore) {
+            final long nextTimeout = scheduleIterator.nextEpochMillis(time);
+            if (nextTimeout != EpochScheduleIterator.NO_NEXT && running) {
+                executionTime = nextTimeout;
+                queue.add(new Timeout(this, Math.max(nextTimeout, notBefore), EpochScheduleIterator.NO_NEXT,
+                        generation));
+            }
+        }
+    }
+
+    /**
+     * A single firing of a task.
+     */
+    private class Execution implements Runnable {
+
+        private final RecurrentTask task;
+        private final long scheduledTime;
+        private final long nextFireTime;
+        private final long dequeueTime;
+        private final long dequeueLag;
+        private final long fencingToken;
+
+        public Execution(final RecurrentTask task, final long scheduledTime, final long nextFireTime,
+                final long dequeueTime, final long dequeueLag) {
+            this.task = task;
+            this.scheduledTime = scheduledTime;
+            this.nextFireTime = nextFireTime;
+            this.dequeueTime = dequeueTime;
+            this.dequeueLag = dequeueLag;
+
+            // the token the firing is dispatched under, the task may move to another node before it runs
+            this.fencingToken = membershipManager.getFencingToken();
         }
 
         @Override
         public void run() {
-            String taskName = taskConfig.getTaskName();
+            Execution execution = this;
+            try {
 
-            notifier.beforeTask(taskName);
+                // a firing deferred while this one was running runs next on the same thread
+                while (execution != null) {
+                    execution.execute();
+                    execution = task.release();
+                }
+            } finally {
+                if (execution != null) {
+
+                    // something other than the task failed, the run slot must not be lost with the exception
+                    execution.abandon();
+                } else {
+                    task.completed();
+                }
+            }
+        }
+
+        /**
+         * Gives up the run slot of an execution that could not be submitted.
+         */
+        public void abandon() {
+            while (task.release() != null) {
+                task.statistics.executionSkipped();
+            }
+
+            task.completed();
+        }
+
+        private void execute() {
+            final TaskConfig taskConfig = task.taskConfig;
+            final TaskStatistics statistics = task.statistics;
+            final String taskName = taskConfig.getTaskName();
+            final NodeAddress nodeAddress = membershipManager.getNodeAddress();
 
+            if (!fencingCheck.validate(taskName, fencingToken)) {
+                LOG.warn("Task {} scheduled at {} fenced off, token {} is stale", taskName, scheduledTime,
+                    fencingToken);
+                statistics.executionFenced();
+                return;
+            }
+
+            // only the firings that run are handed over as fired
+            scheduleStates.fired(taskName, scheduledTime, nextFireTime);
+
+            final long pickupTime = System.nanoTime();
+            final long startLag = dequeueLag + (pickupTime - dequeueTime);
+            final long startedAt = scheduledTime + TimeUnit.NANOSECONDS.toMillis(startLag);
+            statistics.getSchedulingLag().record(dequeueLag, startLag);
+            schedulingLag.record(dequeueLag, startLag);
+
+            notifier.beforeTask(taskName, scheduledTime, startedAt, nodeAddress);
+
+            final long startTime = statistics.executionStarted();
+            Throwable failure = null;
             try {
-                taskConfig.getTask().onTimeout(taskConfig);
+                taskConfig.getTask().onTimeout(new TaskContext(taskConfig, scheduledTime, fencingToken,
+                        fencingCheck));
             } catch (Throwable t) {
+                failure = t;
                 LOG.error("Task execution failed: {}", t.getMessage(), t);
             }
 
-            notifier.afterTask(taskConfig.getTaskName());
-
-            schedule();
-        }
+            final boolean failed = failure != null;
+            final long duration = statistics.executionFinished(startTime, failed);
 
-        public void schedule() {
-            final Date nextTimeout = this.taskConfig.getScheduleIterator().next(executionTime);
-            if (nextTimeout != null && running) {
-                executionTime = nextTimeout;
-                queue.add(this);
+            try {
+                metricsListener.taskFired(taskName, scheduledTime, dequeueLag, startLag, duration, failed);
+            } catch (Throwable t) {
+                LOG.error("Task metrics listener failed: {}", t.getMessage(), t);
             }
+
+            notifier.afterTask(taskName, scheduledTime, startedAt, duration, failure, nodeAddress);
         }
     }
 }
@@ -0,0 +1,57 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import java.util.Collection;
+import java.util.concurrent.Delayed;
+
+/**
+ * Timer structure used by the task scheduler to hold pending executions. Elements can be added concurrently by any
+ * thread, but only a single thread is expected to take expired elements.
+ *
+ * @param    <E>  the type of the elements held in this queue
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public interface TimerQueue<E extends Delayed> {
+
+    /**
+     * Inserts the specified element into this queue.
+     *
+     * @param  element  the element to add
+     */
+    void add(E element);
+
+    /**
+     * Retrieves and removes an expired element of this queue, waiting if necessary until an element expires.
+     *
+     * @return  the expired element
+     *
+     * @throws  InterruptedException  if interrupted while waiting
+     */
+    E take() throws InterruptedException;
+
+    /**
+     * Removes all expired elements of this queue, without waiting, and adds them to the given collection.
+     *
+     * @param   collection  the collection to transfer elements into
+     *
+     * @return  the number of elements transferred
+     */
+    int drainTo(Collection<? super E> collection);
+
+}
@@ -0,0 +1,166 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram. Values below 64 have their own
+ * bucket, above that each power of two is split in 32 buckets, so recorded values are kept within 1/32 (about 3%) of
+ * their magnitude. Values are expected in nanoseconds and are capped at about 73 minutes.
+ *
+ * <p>Recording is wait-free for the bucket and count updates and allocates nothing.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKET_COUNT = 1 << LatencyHistogram.SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF_COUNT = LatencyHistogram.SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * Highest trackable value, about 73 minutes in nanoseconds.
+     */
+    public static final long MAX_VALUE = (1L << 42) - 1;
+
+    private static final int BUCKET_COUNT = LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong totalValue = new AtomicLong();
+
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as zero and values above {@link #MAX_VALUE} as {@link #MAX_VALUE}.
+     *
+     * @param  value  the value to record
+     */
+    public void record(final long value) {
+        final long bounded = Math.min(Math.max(value, 0), LatencyHistogram.MAX_VALUE);
+
+        this.counts.incrementAndGet(LatencyHistogram.indexOf(bounded));
+        this.totalCount.incrementAndGet();
+        this.totalValue.addAndGet(bounded);
+
+        long max = this.maxValue.get();
+        while ((bounded > max) && !this.maxValue.compareAndSet(max, bounded)) {
+            max = this.maxValue.get();
+        }
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return  the number of recorded values
+     */
+    public long getCount() {
+        return this.totalCount.get();
+    }
+
+    /**
+     * Gets the highest recorded value.
+     *
+     * @return  the highest recorded value, zero if there is none
+     */
+    public long getMax() {
+        return this.maxValue.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return  the mean, zero if there is no recorded value
+     */
+    public double getMean() {
+        final long count = this.totalCount.get();
+        return (count == 0) ? 0 : ((double) this.totalValue.get() / count);
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values fall. The result is the highest value
+     * equivalent to the matching bucket, never above {@link #getMax()}.
+     *
+     * @param   percentile  the percentile, between 0 and 100
+     *
+     * @return  the value at the percentile, zero if there is no recorded value
+     */
+    public long getValueAtPercentile(final double percentile) {
+        Preconditions.checkArgument((percentile >= 0) && (percentile <= 100), "percentile must be between 0 and 100");
+
+        long total = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            total += this.counts.get(i);
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil((percentile / 100) * total));
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            cumulative += this.counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(LatencyHistogram.highestEquivalentValue(i), this.maxValue.get());
+            }
+        }
+
+        return this.maxValue.get();
+    }
+
+    /**
+     * Clears all recorded values. Values recorded concurrently may be partially kept.
+     */
+    public void reset() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            this.counts.set(i, 0);
+        }
+
+        this.totalCount.set(0);
+        this.totalValue.set(0);
+        this.maxValue.set(0);
+    }
+
+    private static int indexOf(final long value) {
+        if (value < LatencyHistogram.SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // keep the SUB_BUCKET_BITS most significant bits
+        final int shift = (63 - Long.numberOfLeadingZeros(value)) - (LatencyHistogram.SUB_BUCKET_BITS - 1);
+        return (shift * LatencyHistogram.SUB_BUCKET_HALF_COUNT) + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(final int index) {
+        if (index < LatencyHistogram.SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = (index / LatencyHistogram.SUB_BUCKET_HALF_COUNT) - 1;
+        final long mantissa = index - ((long) shift * LatencyHistogram.SUB_BUCKET_HALF_COUNT);
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
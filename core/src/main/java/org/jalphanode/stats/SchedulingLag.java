@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedAttribute;
+import org.jalphanode.jmx.annotation.ManagedOperation;
+
+import javax.management.MBeanOperationInfo;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How late task firings run compared with their scheduled time. Each firing is split in two stages: the dequeue lag,
+ * from the scheduled time until the scheduler takes the task from its timer structure, and the executor wait, from
+ * then until a worker thread starts running it. The start lag is the sum of both.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@MBean(objectName = SchedulingLag.OBJECT_NAME, description = "Scheduling lag of all task firings")
+public class SchedulingLag {
+
+    public static final String OBJECT_NAME = "SchedulingLag";
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LatencyHistogram dequeueLag = new LatencyHistogram();
+
+    private final LatencyHistogram executorWait = new LatencyHistogram();
+
+    private final LatencyHistogram startLag = new LatencyHistogram();
+
+    /**
+     * Records the lag of a firing.
+     *
+     * @param  dequeueLag  nanoseconds from the scheduled time until the task was dequeued
+     * @param  startLag    nanoseconds from the scheduled time until the task started running
+     */
+    public void record(final long dequeueLag, final long startLag) {
+        this.dequeueLag.record(dequeueLag);
+        this.executorWait.record(startLag - dequeueLag);
+        this.startLag.record(startLag);
+    }
+
+    /**
+     * Gets the dequeue lag histogram, in nanoseconds.
+     *
+     * @return  the dequeue lag histogram
+     */
+    public LatencyHistogram getDequeueLag() {
+        return this.dequeueLag;
+    }
+
+    /**
+     * Gets the executor wait histogram, in nanoseconds.
+     *
+     * @return  the executor wait histogram
+     */
+    public LatencyHistogram getExecutorWait() {
+        return this.executorWait;
+    }
+
+    /**
+     * Gets the start lag histogram, in nanoseconds.
+     *
+     * @return  the start lag histogram
+     */
+    public LatencyHistogram getStartLag() {
+        return this.startLag;
+    }
+
+    @ManagedAttribute(name = "Firings", description = "Returns the number of recorded firings")
+    public long getFirings() {
+        return this.startLag.getCount();
+    }
+
+    @ManagedAttribute(name = "Mean start lag", description = "Returns the mean start lag in ms")
+    public double getMeanStartLag() {
+        return this.startLag.getMean() / SchedulingLag.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "Max start lag", description = "Returns the highest start lag in ms")
+    public double getMaxStartLag() {
+        return this.startLag.getMax() / SchedulingLag.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "50th percentile start lag", description = "Returns the median start lag in ms")
+    public double getStartLagP50() {
+        return SchedulingLag.percentile(this.startLag, 50);
+    }
+
+    @ManagedAttribute(name = "99th percentile start lag", description = "Returns the 99th percentile start lag in ms")
+    public double getStartLagP99() {
+        return SchedulingLag.percentile(this.startLag, 99);
+    }
+
+    @ManagedAttribute(name = "99.9th percentile start lag",
+        description = "Returns the 99.9th percentile start lag in ms")
+    public double getStartLagP999() {
+        return SchedulingLag.percentile(this.startLag, 99.9);
+    }
+
+    @ManagedAttribute(name = "50th percentile dequeue lag", description = "Returns the median dequeue lag in ms")
+    public double getDequeueLagP50() {
+        return SchedulingLag.percentile(this.dequeueLag, 50);
+    }
+
+    @ManagedAttribute(name = "99th percentile dequeue lag",
+        description = "Returns the 99th percentile dequeue lag in ms")
+    public double getDequeueLagP99() {
+        return SchedulingLag.percentile(this.dequeueLag, 99);
+    }
+
+    @ManagedAttribute(name = "50th percentile executor wait", description = "Returns the median executor wait in ms")
+    public double getExecutorWaitP50() {
+        return SchedulingLag.percentile(this.executorWait, 50);
+    }
+
+    @ManagedAttribute(name = "99th percentile executor wait",
+        description = "Returns the 99th percentile executor wait in ms")
+    public double getExecutorWaitP99() {
+        return SchedulingLag.percentile(this.executorWait, 99);
+    }
+
+    @ManagedOperation(name = "Reset", description = "Resets the scheduling lag", impact = MBeanOperationInfo.ACTION)
+    public void reset() {
+        this.dequeueLag.reset();
+        this.executorWait.reset();
+        this.startLag.reset();
+    }
+
+    private static double percentile(final LatencyHistogram histogram, final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / SchedulingLag.NANOS_PER_MILLI;
+    }
+}
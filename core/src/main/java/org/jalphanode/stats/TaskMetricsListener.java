@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+/**
+ * Receives the timings of every task firing, for instance to forward them to an external metrics system. It is
+ * called from the worker thread right after the task completes, so implementations should be fast and thread safe.
+ *
+ * <p>A custom listener is plugged in by overriding {@code InjectorModule.bindTaskMetricsListener()}.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public interface TaskMetricsListener {
+
+    /**
+     * Listener that ignores every firing.
+     */
+    TaskMetricsListener NO_OP = (taskName, scheduledTime, dequeueLag, startLag, duration, failed) -> { };
+
+    /**
+     * Invoked after a task firing completes.
+     *
+     * @param  taskName       the task name
+     * @param  scheduledTime  the scheduled fire time in milliseconds since the epoch
+     * @param  dequeueLag     nanoseconds from the scheduled time until the task was dequeued
+     * @param  startLag       nanoseconds from the scheduled time until the task started running
+     * @param  duration       nanoseconds the task took to run
+     * @param  failed         whether the task threw an exception
+     */
+    void taskFired(String taskName, long scheduledTime, long dequeueLag, long startLag, long duration,
+            boolean failed);
+}
@@ -0,0 +1,278 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+import com.google.common.base.Preconditions;
+import org.jalphanode.jmx.annotation.MBean;
+import org.jalphanode.jmx.annotation.ManagedAttribute;
+import org.jalphanode.jmx.annotation.ManagedOperation;
+
+import javax.management.MBeanOperationInfo;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution statistics of a scheduled task. Recording allocates nothing, so it can run on every execution.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+@MBean(description = "Execution statistics of a scheduled task")
+public class TaskStatistics {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String taskName;
+
+    private final AtomicLong runCount = new AtomicLong();
+
+    private final AtomicLong failureCount = new AtomicLong();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicLong skippedCount = new AtomicLong();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private final AtomicLong misfireCount = new AtomicLong();
+
+    private final AtomicLong fencedCount = new AtomicLong();
+
+    private final AtomicLong totalDuration = new AtomicLong();
+
+    private volatile long lastDuration;
+
+    private final LatencyHistogram durations = new LatencyHistogram();
+
+    private final SchedulingLag schedulingLag = new SchedulingLag();
+
+    /**
+     * Creates the statistics of a task.
+     *
+     * @param  taskName  the task name
+     */
+    public TaskStatistics(final String taskName) {
+        this.taskName = Preconditions.checkNotNull(taskName, "taskName");
+    }
+
+    /**
+     * Records the start of an execution.
+     *
+     * @return  the start time, to be passed to {@link #executionFinished(long, boolean)}
+     */
+    public long executionStarted() {
+        this.running.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of an execution.
+     *
+     * @param   startTime  the value returned by {@link #executionStarted()}
+     * @param   failed     whether the execution failed
+     *
+     * @return  the execution duration in nanoseconds
+     */
+    public long executionFinished(final long startTime, final boolean failed) {
+        final long duration = System.nanoTime() - startTime;
+
+        this.lastDuration = duration;
+        this.totalDuration.addAndGet(duration);
+        this.durations.record(duration);
+        this.runCount.incrementAndGet();
+        if (failed) {
+            this.failureCount.incrementAndGet();
+        }
+
+        this.running.decrementAndGet();
+
+        return duration;
+    }
+
+    /**
+     * Records a firing dropped because previous runs were still executing.
+     */
+    public void executionSkipped() {
+        this.skippedCount.incrementAndGet();
+    }
+
+    /**
+     * Records a firing deferred until the running execution completes.
+     */
+    public void executionCoalesced() {
+        this.coalescedCount.incrementAndGet();
+    }
+
+    /**
+     * Records a firing later than the misfire threshold of the task.
+     */
+    public void executionMisfired() {
+        this.misfireCount.incrementAndGet();
+    }
+
+    /**
+     * Records a firing rejected by the fencing check.
+     */
+    public void executionFenced() {
+        this.fencedCount.incrementAndGet();
+    }
+
+    @ManagedAttribute(name = "Task name", description = "Returns the name of the task")
+    public String getTaskName() {
+        return this.taskName;
+    }
+
+    @ManagedAttribute(name = "Run count", description = "Returns the number of completed executions")
+    public long getRunCount() {
+        return this.runCount.get();
+    }
+
+    @ManagedAttribute(name = "Failure count", description = "Returns the number of executions that threw an exception")
+    public long getFailureCount() {
+        return this.failureCount.get();
+    }
+
+    @ManagedAttribute(name = "Running", description = "Returns the number of executions in progress")
+    public int getRunning() {
+        return this.running.get();
+    }
+
+    @ManagedAttribute(name = "Skipped count",
+        description = "Returns the number of firings dropped because previous runs were still executing")
+    public long getSkippedCount() {
+        return this.skippedCount.get();
+    }
+
+    @ManagedAttribute(name = "Coalesced count",
+        description = "Returns the number of firings folded into a run deferred until the previous one completed")
+    public long getCoalescedCount() {
+        return this.coalescedCount.get();
+    }
+
+    @ManagedAttribute(name = "Misfire count",
+        description = "Returns the number of firings later than the misfire threshold")
+    public long getMisfireCount() {
+        return this.misfireCount.get();
+    }
+
+    @ManagedAttribute(name = "Fenced count",
+        description = "Returns the number of firings rejected because another node took the task over")
+    public long getFencedCount() {
+        return this.fencedCount.get();
+    }
+
+    @ManagedAttribute(name = "Last duration", description = "Returns the duration of the last execution in ms")
+    public double getLastDuration() {
+        return this.lastDuration / TaskStatistics.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "Mean duration", description = "Returns the mean execution duration in ms")
+    public double getMeanDuration() {
+        return this.durations.getMean() / TaskStatistics.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "Max duration", description = "Returns the longest execution duration in ms")
+    public double getMaxDuration() {
+        return this.durations.getMax() / TaskStatistics.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "50th percentile duration", description = "Returns the median execution duration in ms")
+    public double getDurationP50() {
+        return this.durations.getValueAtPercentile(50) / TaskStatistics.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "99th percentile duration",
+        description = "Returns the 99th percentile execution duration in ms")
+    public double getDurationP99() {
+        return this.durations.getValueAtPercentile(99) / TaskStatistics.NANOS_PER_MILLI;
+    }
+
+    @ManagedAttribute(name = "99.9th percentile duration",
+        description = "Returns the 99.9th percentile execution duration in ms")
+    public double getDurationP999() {
+        return this.durations.getValueAtPercentile(99.9) / TaskStatistics.NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets the time spent running completed executions, in nanoseconds.
+     *
+     * @return  the total execution duration
+     */
+    public long getTotalDuration() {
+        return this.totalDuration.get();
+    }
+
+    /**
+     * Gets the execution durations histogram, in nanoseconds.
+     *
+     * @return  the durations histogram
+     */
+    public LatencyHistogram getDurations() {
+        return this.durations;
+    }
+
+    /**
+     * Gets the scheduling lag of the task firings.
+     *
+     * @return  the scheduling lag
+     */
+    public SchedulingLag getSchedulingLag() {
+        return this.schedulingLag;
+    }
+
+    @ManagedAttribute(name = "50th percentile start lag", description = "Returns the median start lag in ms")
+    public double getStartLagP50() {
+        return this.schedulingLag.getStartLagP50();
+    }
+
+    @ManagedAttribute(name = "99th percentile start lag", description = "Returns the 99th percentile start lag in ms")
+    public double getStartLagP99() {
+        return this.schedulingLag.getStartLagP99();
+    }
+
+    @ManagedAttribute(name = "99.9th percentile start lag",
+        description = "Returns the 99.9th percentile start lag in ms")
+    public double getStartLagP999() {
+        return this.schedulingLag.getStartLagP999();
+    }
+
+    @ManagedAttribute(name = "99th percentile dequeue lag",
+        description = "Returns the 99th percentile dequeue lag in ms")
+    public double getDequeueLagP99() {
+        return this.schedulingLag.getDequeueLagP99();
+    }
+
+    @ManagedAttribute(name = "99th percentile executor wait",
+        description = "Returns the 99th percentile executor wait in ms")
+    public double getExecutorWaitP99() {
+        return this.schedulingLag.getExecutorWaitP99();
+    }
+
+    @ManagedOperation(name = "Reset", description = "Resets the statistics", impact = MBeanOperationInfo.ACTION)
+    public void reset() {
+        this.runCount.set(0);
+        this.failureCount.set(0);
+        this.skippedCount.set(0);
+        this.coalescedCount.set(0);
+        this.misfireCount.set(0);
+        this.fencedCount.set(0);
+        this.lastDuration = 0;
+        this.totalDuration.set(0);
+        this.durations.reset();
+        this.schedulingLag.reset();
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import org.jalphanode.jmx.MBeanAnnotationScanner;
+import org.jalphanode.jmx.MBeanMetadata;
+import org.jalphanode.jmx.MBeanRegistry;
+import org.jalphanode.jmx.ResourceDynamicMBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the statistics of every scheduled task and registers each one as an MBean.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class TaskStatisticsRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TaskStatisticsRegistry.class);
+
+    public static final String OBJECT_NAME_PREFIX = "Task.";
+
+    private static final CharMatcher OBJECT_NAME_RESERVED = CharMatcher.anyOf(",=:\"*?\n");
+
+    private final ConcurrentMap<String, TaskStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final MBeanRegistry mBeanRegistry;
+
+    private final MBeanMetadata metadata = new MBeanAnnotationScanner().scan(TaskStatistics.class);
+
+    @Inject
+    public TaskStatisticsRegistry(final MBeanRegistry mBeanRegistry) {
+        this.mBeanRegistry = Preconditions.checkNotNull(mBeanRegistry, "mBeanRegistry");
+    }
+
+    /**
+     * Gets the statistics of a task, creating and registering them on first use.
+     *
+     * @param   taskName  the task name
+     *
+     * @return  the task statistics
+     */
+    public TaskStatistics getStatistics(final String taskName) {
+        Preconditions.checkNotNull(taskName, "taskName");
+
+        TaskStatistics taskStatistics = statistics.get(taskName);
+        if (taskStatistics == null) {
+            final TaskStatistics created = new TaskStatistics(taskName);
+            taskStatistics = statistics.putIfAbsent(taskName, created);
+            if (taskStatistics == null) {
+                taskStatistics = created;
+                register(created);
+            }
+        }
+
+        return taskStatistics;
+    }
+
+    private void register(final TaskStatistics taskStatistics) {
+        String objectName = OBJECT_NAME_PREFIX + taskStatistics.getTaskName();
+        if (OBJECT_NAME_RESERVED.matchesAnyOf(objectName)) {
+            objectName = ObjectName.quote(objectName);
+        }
+
+        try {
+            mBeanRegistry.register(new ResourceDynamicMBean(taskStatistics, metadata), objectName);
+        } catch (JMException e) {
+            LOG.error("Could not register MBean {}", objectName, e);
+        }
+    }
+}
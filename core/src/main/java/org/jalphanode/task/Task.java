@@ -31,4 +31,14 @@ public interface Task {
      * @param  config  the configuration
      */
     void onTimeout(TaskConfig config);
+
+    /**
+     * Method executed on each timeout, with the context of the execution. Tasks that need the fencing token override
+     * this method, by default it calls {@link #onTimeout(TaskConfig)}.
+     *
+     * @param  context  the execution context
+     */
+    default void onTimeout(final TaskContext context) {
+        this.onTimeout(context.getTaskConfig());
+    }
 }
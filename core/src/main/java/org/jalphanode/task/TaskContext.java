@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.task;
+
+import com.google.common.base.Preconditions;
+import org.jalphanode.cluster.FencingCheck;
+import org.jalphanode.config.TaskConfig;
+
+/**
+ * Context of a task execution, passed in to {@link Task#onTimeout(TaskContext)}.
+ *
+ * <p>The fencing token grows with the view and the task assignment under which the firing was dispatched, see
+ * {@link org.jalphanode.cluster.MembershipManager#getFencingToken()}. A task writing to an external resource can hand
+ * it over, so the resource rejects writes older than the last one it accepted, or call {@link #isFencedOff()} before
+ * a side effect to find out whether another node took the task over meanwhile.</p>
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public final class TaskContext {
+
+    private final TaskConfig taskConfig;
+    private final long scheduledTime;
+    private final long fencingToken;
+    private final FencingCheck fencingCheck;
+
+    /**
+     * Creates a new context.
+     *
+     * @param  taskConfig     the task configuration
+     * @param  scheduledTime  the scheduled fire time in milliseconds since the epoch
+     * @param  fencingToken   the fencing token under which the firing was dispatched
+     * @param  fencingCheck   the check deciding whether the execution may still run
+     */
+    public TaskContext(final TaskConfig taskConfig, final long scheduledTime, final long fencingToken,
+            final FencingCheck fencingCheck) {
+        this.taskConfig = Preconditions.checkNotNull(taskConfig, "taskConfig");
+        this.scheduledTime = scheduledTime;
+        this.fencingToken = fencingToken;
+        this.fencingCheck = Preconditions.checkNotNull(fencingCheck, "fencingCheck");
+    }
+
+    /**
+     * Gets the task configuration.
+     *
+     * @return  the task configuration
+     */
+    public TaskConfig getTaskConfig() {
+        return this.taskConfig;
+    }
+
+    /**
+     * Gets the time the task was scheduled to fire.
+     *
+     * @return  the scheduled time, in milliseconds since the epoch
+     */
+    public long getScheduledTime() {
+        return this.scheduledTime;
+    }
+
+    /**
+     * Gets the fencing token of the execution.
+     *
+     * @return  the fencing token under which the firing was dispatched
+     */
+    public long getFencingToken() {
+        return this.fencingToken;
+    }
+
+    /**
+     * Runs the fencing check again, for instance before a side effect of a long running task.
+     *
+     * @return  true if the execution is stale and should stop, otherwise false
+     */
+    public boolean isFencedOff() {
+        return !this.fencingCheck.validate(this.taskConfig.getTaskName(), this.fencingToken);
+    }
+}
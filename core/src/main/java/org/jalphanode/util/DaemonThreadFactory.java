@@ -17,18 +17,20 @@ package org.jalphanode.util;
 
 import java.text.MessageFormat;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Preconditions;
 
 /**
- * Default thread factory.
+ * Default thread factory, also creating the worker threads of a {@link ForkJoinPool}.
  *
  * @author   ribeirux
  * @version  $Revision: 274 $
  */
-public class DaemonThreadFactory implements ThreadFactory {
+public class DaemonThreadFactory implements ThreadFactory, ForkJoinPool.ForkJoinWorkerThreadFactory {
 
     private static final AtomicInteger COUNTER = new AtomicInteger(0);
 
@@ -48,9 +50,17 @@ public class DaemonThreadFactory implements ThreadFactory {
 
     @Override
     public Thread newThread(final Runnable target) {
-        final Thread thread = new Thread(target,
-                MessageFormat.format("{0}-{1}", this.threadNamePrefix, DaemonThreadFactory.COUNTER.getAndIncrement()));
+        return this.configure(new Thread(target));
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+        return this.configure(new ForkJoinWorkerThread(pool) { });
+    }
 
+    private <T extends Thread> T configure(final T thread) {
+        thread.setName(MessageFormat.format("{0}-{1}", this.threadNamePrefix,
+                DaemonThreadFactory.COUNTER.getAndIncrement()));
         thread.setDaemon(true);
         thread.setPriority(this.threadPrio);
 
@@ -0,0 +1,73 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.util;
+
+import java.lang.reflect.Method;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Creates virtual thread factories through reflection, so the code still runs on JVMs without virtual threads.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public final class VirtualThreadFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadFactory.class);
+
+    private VirtualThreadFactory() {
+    }
+
+    /**
+     * Checks if the running JVM supports virtual threads.
+     *
+     * @return  {@code true} if virtual threads are supported, {@code false} otherwise
+     */
+    public static boolean isSupported() {
+        return VirtualThreadFactory.newInstance("virtual") != null;
+    }
+
+    /**
+     * Creates a new virtual thread factory.
+     *
+     * @param   threadNamePrefix  thread name prefix
+     *
+     * @return  a new thread factory, or {@code null} if the JVM does not support virtual threads
+     */
+    public static ThreadFactory newInstance(final String threadNamePrefix) {
+        Preconditions.checkNotNull(threadNamePrefix, "threadNamePrefix");
+
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Method name = builderClass.getMethod("name", String.class, long.class);
+            final Method factory = builderClass.getMethod("factory");
+
+            final Object builder = name.invoke(Thread.class.getMethod("ofVirtual").invoke(null),
+                    threadNamePrefix + "-", 0L);
+
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Virtual threads are not supported: {}", e.toString());
+            return null;
+        }
+    }
+}
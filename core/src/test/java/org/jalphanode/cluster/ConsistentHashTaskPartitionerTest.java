@@ -0,0 +1,106 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+
+import org.testng.annotations.Test;
+
+/**
+ * Consistent hash task partitioner tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ConsistentHashTaskPartitionerTest {
+
+    private static final int TASKS = 3000;
+
+    static final class TestAddress implements NodeAddress {
+
+        private final String name;
+
+        TestAddress(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return (obj instanceof TestAddress) && this.name.equals(((TestAddress) obj).name);
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    private static Map<String, NodeAddress> assign(final TaskPartitioner partitioner) {
+        final Map<String, NodeAddress> owners = new HashMap<>();
+        for (int i = 0; i < TASKS; i++) {
+            owners.put("task-" + i, partitioner.getOwner("task-" + i));
+        }
+
+        return owners;
+    }
+
+    @Test
+    public void testBalanceAndRebalance() {
+        final List<NodeAddress> members = new ArrayList<>(Arrays.<NodeAddress>asList(new TestAddress("a-1"),
+                    new TestAddress("b-2"), new TestAddress("c-3")));
+
+        final TaskPartitioner partitioner = new ConsistentHashTaskPartitioner(160);
+        Assert.assertNull(partitioner.getOwner("task"));
+
+        partitioner.viewAccepted(members, members.get(0));
+        final Map<String, NodeAddress> before = assign(partitioner);
+        for (NodeAddress member : members) {
+            final long owned = before.values().stream().filter(member::equals).count();
+            Assert.assertTrue((owned > (TASKS / 5)) && (owned < (TASKS / 2)), member + " owns " + owned);
+        }
+
+        // a joining member only takes tasks over, about a quarter of them
+        final NodeAddress joining = new TestAddress("d-4");
+        members.add(joining);
+        partitioner.viewAccepted(members, members.get(0));
+
+        int moved = 0;
+        for (Map.Entry<String, NodeAddress> entry : assign(partitioner).entrySet()) {
+            if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                Assert.assertEquals(entry.getValue(), joining);
+                moved++;
+            }
+        }
+
+        Assert.assertTrue((moved > (TASKS / 8)) && (moved < (TASKS / 2.5)), "moved " + moved);
+
+        // and leaving gives them back
+        members.remove(joining);
+        partitioner.viewAccepted(members, members.get(0));
+        Assert.assertEquals(assign(partitioner), before);
+    }
+}
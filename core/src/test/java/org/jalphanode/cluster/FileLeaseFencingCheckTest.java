@@ -0,0 +1,131 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import org.jalphanode.cluster.ConsistentHashTaskPartitionerTest.TestAddress;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * File lease fencing check tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class FileLeaseFencingCheckTest {
+
+    @Test
+    public void testSplitBrain() throws IOException {
+        final File directory = Files.createTempDirectory("fencing").toFile();
+        directory.deleteOnExit();
+
+        final FencingCheck first = new FileLeaseFencingCheck(directory, 60000, new TestMembershipManager("a-1"));
+        final FencingCheck second = new FileLeaseFencingCheck(directory, 60000, new TestMembershipManager("b-2"));
+
+        // both sides of a partition install a view with the same id, the first one to run takes the lease
+        Assert.assertTrue(first.validate("task", 5));
+        Assert.assertTrue(first.validate("task", 5));
+        Assert.assertFalse(second.validate("task", 5));
+
+        // tasks are fenced independently
+        Assert.assertTrue(second.validate("other/task", 5));
+
+        // a newer view wins over the stale side
+        Assert.assertTrue(second.validate("task", 6));
+        Assert.assertFalse(first.validate("task", 5));
+        Assert.assertFalse(first.validate("task", 6));
+        Assert.assertTrue(first.validate("task", 7));
+
+        for (File lease : directory.listFiles()) {
+            lease.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testExpiredLease() throws Exception {
+        final File directory = Files.createTempDirectory("fencing").toFile();
+        directory.deleteOnExit();
+
+        final FencingCheck previous = new FileLeaseFencingCheck(directory, 60000, new TestMembershipManager("a-1"));
+        Assert.assertTrue(previous.validate("task", 42));
+
+        // a restarted cluster starts over from small view ids once the lease expires
+        final FencingCheck restarted = new FileLeaseFencingCheck(directory, 1, new TestMembershipManager("b-2"));
+        Thread.sleep(5);
+        Assert.assertTrue(restarted.validate("task", 1));
+
+        for (File lease : directory.listFiles()) {
+            lease.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testMoveWithinView() throws IOException {
+        final File directory = Files.createTempDirectory("fencing").toFile();
+        directory.deleteOnExit();
+
+        final FencingCheck previous = new FileLeaseFencingCheck(directory, 60000, new TestMembershipManager("a-1"));
+        final FencingCheck next = new FileLeaseFencingCheck(directory, 60000, new TestMembershipManager("b-2"));
+
+        // a new task assignment within the view hands the lease over to the new owner
+        final long viewToken = 5L << 32;
+        Assert.assertTrue(previous.validate("task", viewToken));
+        Assert.assertTrue(next.validate("task", viewToken + 1));
+        Assert.assertFalse(previous.validate("task", viewToken));
+
+        for (File lease : directory.listFiles()) {
+            lease.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testHeartbeat() throws Exception {
+        final File directory = Files.createTempDirectory("fencing").toFile();
+        directory.deleteOnExit();
+
+        final NodeAddress owner = new TestAddress("a-1");
+        final NodeAddress other = new TestAddress("b-2");
+        final TestMembershipManager manager = new TestMembershipManager(owner);
+        manager.setMembers(Arrays.asList(owner, other));
+
+        final FileLeaseFencingCheck holder = new FileLeaseFencingCheck(directory, 300, manager);
+        final FencingCheck contender = new FileLeaseFencingCheck(directory, 300, new TestMembershipManager(other));
+        holder.start();
+        try {
+
+            // the lease outlives its duration while its holder owns the task, even if the task does not run
+            Assert.assertTrue(holder.validate("task", 5));
+            Thread.sleep(700);
+            Assert.assertFalse(contender.validate("task", 5));
+
+            // once the task moved away the lease is no longer renewed and expires
+            manager.setMembers(Arrays.asList(other, owner));
+            Thread.sleep(700);
+            Assert.assertTrue(contender.validate("task", 5));
+        } finally {
+            holder.stop();
+        }
+
+        for (File lease : directory.listFiles()) {
+            lease.deleteOnExit();
+        }
+    }
+}
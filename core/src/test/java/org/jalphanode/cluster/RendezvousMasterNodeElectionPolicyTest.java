@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jalphanode.cluster.ConsistentHashTaskPartitionerTest.TestAddress;
+
+import org.testng.Assert;
+
+import org.testng.annotations.Test;
+
+/**
+ * Rendezvous master node election policy tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class RendezvousMasterNodeElectionPolicyTest {
+
+    private static final int TASKS = 3000;
+
+    private static Map<String, NodeAddress> elect(final MasterNodeElectionPolicy policy,
+            final List<NodeAddress> members) {
+        final Map<String, NodeAddress> owners = new HashMap<>();
+        for (int i = 0; i < TASKS; i++) {
+            owners.put("task-" + i, policy.elect("task-" + i, members));
+        }
+
+        return owners;
+    }
+
+    @Test
+    public void testElectPerTask() {
+        final List<NodeAddress> members = Arrays.<NodeAddress>asList(new TestAddress("a-1"), new TestAddress("b-2"),
+                new TestAddress("c-3"), new TestAddress("d-4"));
+
+        final MasterNodeElectionPolicy policy = new RendezvousMasterNodeElectionPolicy();
+        Assert.assertEquals(policy.elect(members), members.get(0));
+
+        final Map<String, NodeAddress> before = elect(policy, members);
+        for (NodeAddress member : members) {
+            final long owned = before.values().stream().filter(member::equals).count();
+            Assert.assertTrue((owned > (TASKS / 6)) && (owned < (TASKS / 3)), member + " owns " + owned);
+        }
+
+        // cached owners are stable and do not depend on the order of the members
+        final List<NodeAddress> reversed = new ArrayList<>(members);
+        Collections.reverse(reversed);
+        Assert.assertEquals(elect(policy, members), before);
+        Assert.assertEquals(elect(policy, reversed), before);
+
+        // only the tasks of a leaving member move, every membership comes as a new list
+        final List<NodeAddress> remaining = new ArrayList<>(members);
+        final NodeAddress leaving = remaining.remove(1);
+        for (Map.Entry<String, NodeAddress> entry : elect(policy, remaining).entrySet()) {
+            if (before.get(entry.getKey()).equals(leaving)) {
+                Assert.assertNotEquals(entry.getValue(), leaving);
+            } else {
+                Assert.assertEquals(entry.getValue(), before.get(entry.getKey()));
+            }
+        }
+
+        // and joining again takes them back
+        final List<NodeAddress> rejoined = new ArrayList<>(remaining);
+        rejoined.add(leaving);
+        Assert.assertEquals(elect(policy, rejoined), before);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testElectWithoutNodes() {
+        new RendezvousMasterNodeElectionPolicy().elect("task", Collections.<NodeAddress>emptyList());
+    }
+
+    @Test
+    public void testElectionPolicyTaskPartitioner() {
+        final List<NodeAddress> members = Arrays.<NodeAddress>asList(new TestAddress("a-1"), new TestAddress("b-2"));
+        final MasterNodeElectionPolicy policy = new RendezvousMasterNodeElectionPolicy();
+
+        final TaskPartitioner partitioner = new ElectionPolicyTaskPartitioner(policy);
+        Assert.assertNull(partitioner.getOwner("task"));
+
+        partitioner.viewAccepted(members, members.get(0));
+        Assert.assertEquals(partitioner.getOwner("task"), policy.elect("task", members));
+
+        // the default election gives every task to the master node
+        final TaskPartitioner master = new ElectionPolicyTaskPartitioner(new SimpleMasterNodeElectionPolicy());
+        master.viewAccepted(members, members.get(0));
+        Assert.assertEquals(master.getOwner("task"), members.get(0));
+    }
+}
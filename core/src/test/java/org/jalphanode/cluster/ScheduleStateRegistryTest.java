@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jalphanode.cluster.ConsistentHashTaskPartitionerTest.TestAddress;
+import org.jalphanode.scheduler.EpochScheduleIterator;
+
+import org.testng.Assert;
+
+import org.testng.annotations.Test;
+
+/**
+ * Schedule state registry tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ScheduleStateRegistryTest {
+
+    @Test
+    public void testHandOver() throws IOException {
+        final NodeAddress owner = new TestAddress("a-1");
+        final NodeAddress successor = new TestAddress("b-2");
+
+        final ScheduleStateRegistry ownerStates = new ScheduleStateRegistry(() -> new TestMembershipManager(owner));
+        ownerStates.fired("task", 1000, 2000);
+        ownerStates.stop();
+
+        // the owner does not miss its own fire times
+        Assert.assertEquals(ownerStates.getMissedFireTime("task", 3000), EpochScheduleIterator.NO_NEXT);
+
+        final ByteArrayOutputStream state = new ByteArrayOutputStream();
+        ownerStates.writeState(state);
+
+        final TestMembershipManager manager = new TestMembershipManager(successor);
+        final ScheduleStateRegistry states = new ScheduleStateRegistry(() -> manager);
+        Assert.assertEquals(states.getLastFireTime("task"), Long.MIN_VALUE);
+
+        states.readState(new ByteArrayInputStream(state.toByteArray()));
+        Assert.assertEquals(states.getLastFireTime("task"), 1000);
+
+        // updates older than the recorded fire time are ignored
+        states.merge(owner, new ScheduleStateUpdate(new String[] {"task"}, new long[] {500}, new long[] {1000}));
+        Assert.assertEquals(states.getLastFireTime("task"), 1000);
+
+        // the next fire time recorded by another owner is missed once due
+        Assert.assertEquals(states.getMissedFireTime("task", 1500), EpochScheduleIterator.NO_NEXT);
+        Assert.assertEquals(states.getMissedFireTime("task", 3000), 2000);
+
+        // until the successor fires it
+        states.fired("task", 2000, 4000);
+        Assert.assertEquals(states.getMissedFireTime("task", 3000), EpochScheduleIterator.NO_NEXT);
+        states.stop();
+    }
+}
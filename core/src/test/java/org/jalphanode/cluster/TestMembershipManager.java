@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import org.jalphanode.cluster.ConsistentHashTaskPartitionerTest.TestAddress;
+
+/**
+ * Membership manager that is never connected: the members are set by the test and the first one is the master,
+ * which runs every task.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class TestMembershipManager implements MembershipManager {
+
+    private final NodeAddress address;
+    private volatile List<NodeAddress> members = Collections.emptyList();
+    private volatile long viewId;
+
+    /**
+     * Creates a manager that has not joined any view yet.
+     *
+     * @param  address  the address of the current node
+     */
+    public TestMembershipManager(final NodeAddress address) {
+        this.address = address;
+    }
+
+    /**
+     * Creates the manager of a node running alone.
+     *
+     * @param  nodeName  the name of the current node
+     */
+    public TestMembershipManager(final String nodeName) {
+        this(new TestAddress(nodeName));
+        this.setMembers(Collections.singletonList(this.address));
+    }
+
+    /**
+     * Installs a new view.
+     *
+     * @param  members  the members of the view
+     */
+    public void setMembers(final List<NodeAddress> members) {
+        this.members = members;
+        this.viewId++;
+    }
+
+    @Override
+    public String getClusterName() {
+        return "test";
+    }
+
+    @Override
+    public NodeAddress getNodeAddress() {
+        return this.address;
+    }
+
+    @Override
+    public NodeAddress getMasterNodeAddress() {
+        return this.members.isEmpty() ? null : this.members.get(0);
+    }
+
+    @Override
+    public boolean isMasterNode() {
+        return this.address.equals(this.getMasterNodeAddress());
+    }
+
+    @Override
+    public List<NodeAddress> getMembers() {
+        return this.members;
+    }
+
+    @Override
+    public boolean isTaskOwner(final String taskName) {
+        return this.isMasterNode();
+    }
+
+    @Override
+    public long getViewId() {
+        return this.viewId;
+    }
+
+    @Override
+    public long getFencingToken() {
+        return this.viewId << 32;
+    }
+
+    @Override
+    public void broadcast(final Serializable message) {
+        // nobody listens
+    }
+
+    @Override
+    public void connect() {
+        // not connected
+    }
+
+    @Override
+    public void shutdown() {
+        // not connected
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.cluster;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+
+import org.jalphanode.cluster.ConsistentHashTaskPartitionerTest.TestAddress;
+import org.jalphanode.config.JAlphaNodeType;
+import org.jalphanode.config.TaskType;
+import org.jalphanode.jmx.MBeanRegistry;
+import org.jalphanode.stats.TaskStatisticsRegistry;
+
+import org.testng.Assert;
+
+import org.testng.annotations.Test;
+
+/**
+ * Weighted task partitioner tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class WeightedTaskPartitionerTest {
+
+    private static final MBeanRegistry NO_MBEANS = new MBeanRegistry() {
+
+        @Override
+        public ObjectInstance register(final Object instance, final String objectName) {
+            return null;
+        }
+
+        @Override
+        public void unregister(final ObjectName name) {
+            // nothing registered
+        }
+
+        @Override
+        public void unregisterAll() {
+            // nothing registered
+        }
+    };
+
+    private final List<NodeAddress> members = Arrays.<NodeAddress>asList(new TestAddress("a-1"),
+            new TestAddress("b-2"));
+
+    private static long owned(final Map<String, NodeAddress> owners, final NodeAddress member) {
+        return owners.values().stream().filter(member::equals).count();
+    }
+
+    @Test
+    public void testAssignInProportionToSpareCapacity() {
+        final Map<String, Double> taskLoads = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            taskLoads.put("task-" + i, 0.1);
+        }
+
+        final Map<String, NodeAddress> owners = WeightedTaskPartitioner.assign(taskLoads, this.members,
+                new double[] {1, 3}, Collections.<String, NodeAddress>emptyMap());
+        Assert.assertEquals(owners.size(), 40);
+        Assert.assertEquals(owned(owners, this.members.get(0)), 10);
+        Assert.assertEquals(owned(owners, this.members.get(1)), 30);
+
+        // small changes of the spare capacities do not move tasks
+        Assert.assertEquals(WeightedTaskPartitioner.assign(taskLoads, this.members, new double[] {1.1, 3}, owners),
+            owners);
+
+        // large ones do
+        final Map<String, NodeAddress> moved = WeightedTaskPartitioner.assign(taskLoads, this.members,
+                new double[] {3, 3}, owners);
+        final long movedOwned = owned(moved, this.members.get(0));
+        Assert.assertTrue((movedOwned > 15) && (movedOwned <= 20), "owns " + movedOwned);
+    }
+
+    @Test
+    public void testAssignHeaviestTasksFirst() {
+        final Map<String, Double> taskLoads = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            taskLoads.put("light-" + i, 0.1);
+        }
+
+        taskLoads.put("heavy", 2.0);
+
+        // the heavy task fills up a member on its own
+        final Map<String, NodeAddress> owners = WeightedTaskPartitioner.assign(taskLoads, this.members,
+                new double[] {2, 2}, Collections.<String, NodeAddress>emptyMap());
+        final NodeAddress heavyOwner = owners.get("heavy");
+        Assert.assertEquals(owned(owners, heavyOwner), 1);
+    }
+
+    @Test
+    public void testAssignmentTakesEffectAtItsTime() throws InterruptedException {
+        final NodeAddress master = this.members.get(0);
+        final NodeAddress current = this.members.get(1);
+        final TestMembershipManager manager = new TestMembershipManager(current);
+        manager.setMembers(this.members);
+
+        final JAlphaNodeType config = new JAlphaNodeType();
+        final TaskType task = new TaskType();
+        task.setTaskName("task");
+        config.getTasks().addTask(task);
+
+        final ScheduleStateRegistry scheduleStates = new ScheduleStateRegistry(() -> manager);
+        final AtomicInteger ownersChanges = new AtomicInteger();
+        final CountDownLatch applied = new CountDownLatch(1);
+        scheduleStates.addOwnersListener(() -> {
+            ownersChanges.incrementAndGet();
+            applied.countDown();
+        });
+
+        final WeightedTaskPartitioner partitioner = new WeightedTaskPartitioner(config,
+                new SimpleMasterNodeElectionPolicy(), () -> manager, new TaskStatisticsRegistry(NO_MBEANS),
+                scheduleStates);
+        try {
+            partitioner.viewAccepted(this.members, master);
+            Assert.assertEquals(partitioner.getOwner("task"), master);
+
+            final long version = (manager.getViewId() << 32) + 1;
+            final Map<String, NodeAddress> owners = Collections.singletonMap("task", current);
+
+            // only the master of the current view assigns the tasks
+            partitioner.messageReceived(current, new TaskAssignment(version, 0, owners));
+            partitioner.messageReceived(master, new TaskAssignment(version + (1L << 32), 0, owners));
+            Thread.sleep(50);
+            Assert.assertEquals(partitioner.getOwner("task"), master);
+
+            // the owner changes at the effective time only
+            final long effectiveTime = System.currentTimeMillis() + 200;
+            partitioner.messageReceived(master, new TaskAssignment(version, effectiveTime, owners));
+            Assert.assertEquals(partitioner.getOwner("task"), master);
+            Assert.assertEquals(partitioner.getAssignmentVersion(), 0);
+
+            Assert.assertTrue(applied.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(System.currentTimeMillis() >= effectiveTime);
+            Assert.assertEquals(partitioner.getAssignmentVersion(), version);
+            Assert.assertEquals(partitioner.getOwner("task"), current);
+            Assert.assertEquals(ownersChanges.get(), 1);
+
+            // older versions are ignored
+            partitioner.messageReceived(master, new TaskAssignment(version, 0,
+                    Collections.singletonMap("task", master)));
+            Thread.sleep(50);
+            Assert.assertEquals(partitioner.getOwner("task"), current);
+
+            // a new view drops the assignments not in effect yet
+            partitioner.messageReceived(master, new TaskAssignment(version + 1, System.currentTimeMillis() + 100,
+                    Collections.singletonMap("task", master)));
+            manager.setMembers(this.members);
+            partitioner.viewAccepted(this.members, master);
+            Thread.sleep(200);
+            Assert.assertEquals(partitioner.getOwner("task"), current);
+            Assert.assertEquals(partitioner.getAssignmentVersion(), version);
+        } finally {
+            partitioner.stop();
+            scheduleStates.stop();
+        }
+    }
+}
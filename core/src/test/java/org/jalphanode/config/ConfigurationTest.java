@@ -16,6 +16,8 @@
 package org.jalphanode.config;
 
 import org.jalphanode.scheduler.CronIterator;
+import org.jalphanode.scheduler.FixedDelayIterator;
+import org.jalphanode.scheduler.FixedRateIterator;
 import org.jalphanode.scheduler.SchedulerParseException;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -24,6 +26,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration tests.
@@ -49,11 +52,14 @@ public class ConfigurationTest {
         final TaskSchedulerConfig taskScheduler = config.getTaskScheduler();
         Assert.assertNotNull(taskScheduler);
         Assert.assertNotNull(taskScheduler.getProperties());
+        Assert.assertEquals(taskScheduler.getEngine(), SchedulerEngine.DELAY_QUEUE);
+        Assert.assertEquals(taskScheduler.getExecutor(), SchedulerExecutorMode.THREAD_POOL);
 
         // Async Executor
         final AsyncNotificationExecutorConfig asyncNotificationExecutor = config.getAsyncNotificationExecutor();
         Assert.assertNotNull(asyncNotificationExecutor);
         Assert.assertNotNull(asyncNotificationExecutor.getProperties());
+        Assert.assertEquals(asyncNotificationExecutor.getExecutor(), NotificationExecutorMode.THREAD_POOL);
 
         // Membership Manager
         final MembershipConfig membershipConf = config.getMembership();
@@ -81,6 +87,9 @@ public class ConfigurationTest {
         Assert.assertEquals(task.getTaskName(), "TestName");
         Assert.assertNotNull(task.getScheduleIterator());
         Assert.assertEquals(task.getTask().getClass().getName(), "org.jalphanode.config.TestTask");
+        Assert.assertEquals(task.getOverlapPolicy(), OverlapPolicy.COALESCE);
+        Assert.assertEquals(task.getMaxConcurrent(), Integer.valueOf(1));
+        Assert.assertEquals(task.getMisfirePolicy(), MisfirePolicy.FIRE_ONCE_NOW);
 
         // Task Scheduler
         final TaskSchedulerConfig taskScheduler = config.getTaskScheduler();
@@ -137,6 +146,54 @@ public class ConfigurationTest {
         }
     }
 
+    @Test
+    public void testTaskSchedulerAttributes() throws Exception {
+        final String xml = "<jalphanode xmlns=\"urn:jalphanode:config\">"
+                + "<tasks><task class=\"org.jalphanode.config.TestTask\" taskName=\"TestName\""
+                + " overlapPolicy=\"concurrent\" maxConcurrent=\"3\" misfirePolicy=\"fireAllMissed\""
+                + " misfireThreshold=\"250\" catchUpRate=\"2\"><trigger><expression>10 1 * * * ?</expression></trigger></task></tasks>"
+                + "<taskScheduler engine=\"timingWheel\" executor=\"virtualThread\" />"
+                + "<asyncNotificationExecutor executor=\"ringBuffer\" /></jalphanode>";
+
+        try (InputStream is = new ByteArrayInputStream(xml.getBytes())) {
+            final JAlphaNodeConfig config = JAlphaNodeConfigBuilder.buildFromStream(is);
+            final TaskConfig task = config.getTasks().getTask().get(0);
+            Assert.assertEquals(task.getOverlapPolicy(), OverlapPolicy.CONCURRENT);
+            Assert.assertEquals(task.getMaxConcurrent(), Integer.valueOf(3));
+            Assert.assertEquals(task.getMisfirePolicy(), MisfirePolicy.FIRE_ALL_MISSED);
+            Assert.assertEquals(task.getMisfireThreshold(), Long.valueOf(250));
+            Assert.assertEquals(task.getCatchUpRate(), Integer.valueOf(2));
+
+            final TaskSchedulerConfig taskScheduler = config.getTaskScheduler();
+            Assert.assertEquals(taskScheduler.getEngine(), SchedulerEngine.TIMING_WHEEL);
+            Assert.assertEquals(taskScheduler.getExecutor(), SchedulerExecutorMode.VIRTUAL_THREAD);
+            Assert.assertEquals(config.getAsyncNotificationExecutor().getExecutor(),
+                NotificationExecutorMode.RING_BUFFER);
+        }
+    }
+
+    @Test
+    public void testIntervalTriggers() throws Exception {
+        final String xml = "<jalphanode xmlns=\"urn:jalphanode:config\"><tasks>"
+                + "<task class=\"org.jalphanode.config.TestTask\" taskName=\"rate\">"
+                + "<trigger><fixedRate interval=\"250\" /></trigger></task>"
+                + "<task class=\"org.jalphanode.config.TestTask\" taskName=\"delay\">"
+                + "<trigger><fixedDelay interval=\"500\" timeUnit=\"microseconds\" /></trigger></task>"
+                + "</tasks></jalphanode>";
+
+        try (InputStream is = new ByteArrayInputStream(xml.getBytes())) {
+            final List<TaskConfig> tasks = JAlphaNodeConfigBuilder.buildFromStream(is).getTasks().getTask();
+
+            final FixedRateIterator fixedRate = (FixedRateIterator) tasks.get(0).getScheduleIterator();
+            Assert.assertEquals(fixedRate.getPeriod(), 250);
+            Assert.assertEquals(fixedRate.getTimeUnit(), TimeUnit.MILLISECONDS);
+
+            final FixedDelayIterator fixedDelay = (FixedDelayIterator) tasks.get(1).getScheduleIterator();
+            Assert.assertEquals(fixedDelay.getDelay(), 500);
+            Assert.assertEquals(fixedDelay.getTimeUnit(), TimeUnit.MICROSECONDS);
+        }
+    }
+
     @Test
     public void testGoodFileConfig() throws ConfigException {
         final JAlphaNodeConfig config = JAlphaNodeConfigBuilder.buildFromFile("good-jalphanode-config.xml");
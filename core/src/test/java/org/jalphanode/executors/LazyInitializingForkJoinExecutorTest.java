@@ -0,0 +1,86 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import org.jalphanode.config.JAlphaNodeConfig;
+import org.jalphanode.config.JAlphaNodeConfigBuilder;
+import org.jalphanode.config.SchedulerExecutorMode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fork join executor tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class LazyInitializingForkJoinExecutorTest {
+
+    private static final int TASKS = 1000;
+
+    @Test
+    public void testRunTasks() throws Exception {
+        final String xml = "<jalphanode xmlns=\"urn:jalphanode:config\">"
+                + "<tasks><task class=\"org.jalphanode.config.TestTask\" taskName=\"task\">"
+                + "<trigger><fixedRate interval=\"1000\" /></trigger></task></tasks>"
+                + "<taskScheduler executor=\"forkJoin\"><properties>"
+                + "<property name=\"parallelism\" value=\"2\" />"
+                + "<property name=\"threadPrefix\" value=\"fork-join-test\" />"
+                + "</properties></taskScheduler></jalphanode>";
+
+        final JAlphaNodeConfig config;
+        try (InputStream is = new ByteArrayInputStream(xml.getBytes())) {
+            config = JAlphaNodeConfigBuilder.buildFromStream(is);
+        }
+
+        Assert.assertEquals(config.getTaskScheduler().getExecutor(), SchedulerExecutorMode.FORK_JOIN);
+
+        final LazyInitializingForkJoinExecutor executor = new LazyInitializingForkJoinExecutor(config);
+        Assert.assertEquals(executor.getPoolSize(), 0);
+
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final CountDownLatch done = new CountDownLatch(TASKS);
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                executor.execute(() -> {
+                    threads.add(Thread.currentThread().getName());
+                    done.countDown();
+                });
+            }
+
+            Assert.assertTrue(done.await(30, TimeUnit.SECONDS), "tasks did not run");
+            Assert.assertEquals(executor.getParallelism(), 2);
+            Assert.assertTrue(executor.getPoolSize() <= 2, "pool size " + executor.getPoolSize());
+            for (String thread : threads) {
+                Assert.assertTrue(thread.startsWith("fork-join-test-"), thread);
+            }
+        } finally {
+            executor.stop();
+        }
+
+        // a stopped executor drops new tasks
+        final CountDownLatch dropped = new CountDownLatch(1);
+        executor.execute(dropped::countDown);
+        Assert.assertFalse(dropped.await(100, TimeUnit.MILLISECONDS));
+    }
+}
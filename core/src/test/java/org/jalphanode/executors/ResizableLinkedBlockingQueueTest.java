@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Resizable linked blocking queue tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class ResizableLinkedBlockingQueueTest {
+
+    @Test
+    public void testResize() {
+        final ResizableLinkedBlockingQueue<Integer> queue = new ResizableLinkedBlockingQueue<>(2);
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertFalse(queue.offer(3), "accepted an element above capacity");
+
+        queue.setCapacity(3);
+        Assert.assertEquals(queue.remainingCapacity(), 1);
+        Assert.assertTrue(queue.offer(3));
+
+        // shrinking keeps queued elements
+        queue.setCapacity(1);
+        Assert.assertEquals(queue.size(), 3);
+        Assert.assertEquals(queue.remainingCapacity(), 0);
+        Assert.assertFalse(queue.offer(4));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new ResizableLinkedBlockingQueue<Integer>(1).setCapacity(0);
+    }
+}
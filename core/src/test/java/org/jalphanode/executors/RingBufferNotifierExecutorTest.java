@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.executors;
+
+import org.jalphanode.annotation.AfterTask;
+import org.jalphanode.annotation.BeforeTask;
+import org.jalphanode.annotation.Listener;
+import org.jalphanode.config.JAlphaNodeConfigBuilder;
+import org.jalphanode.config.NotificationExecutorMode;
+import org.jalphanode.notification.Event;
+import org.jalphanode.notification.NotifierImpl;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ring buffer notifier executor tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class RingBufferNotifierExecutorTest {
+
+    private static final int EVENTS = 10000;
+
+    @Listener(sync = false)
+    public static class OrderListener {
+
+        final List<String> events = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(2 * EVENTS);
+
+        @BeforeTask
+        public void beforeTask(final Event event) {
+            events.add("before " + event.getComponentName());
+            done.countDown();
+        }
+
+        @AfterTask
+        public void afterTask(final Event event) {
+            events.add("after " + event.getComponentName());
+            done.countDown();
+        }
+    }
+
+    @Listener(sync = false)
+    public static class RepublishingListener {
+
+        private static final int REPUBLISHED = 8;
+
+        NotifierImpl notifier;
+        final CountDownLatch done = new CountDownLatch(REPUBLISHED);
+
+        @BeforeTask
+        public void beforeTask(final Event event) {
+            for (int i = 0; i < REPUBLISHED; i++) {
+                notifier.afterTask(event.getComponentName(), i, i, 0, null, null);
+            }
+        }
+
+        @AfterTask
+        public void afterTask(final Event event) {
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void testListenerOrdering() throws InterruptedException {
+        final RingBufferNotifierExecutor executor = new RingBufferNotifierExecutor(new JAlphaNodeConfigBuilder()
+                .asyncNotificationExecutor().withExecutor(NotificationExecutorMode.RING_BUFFER).withPoolSize(2)
+                .addProperty("ringSize", "64").build());
+
+        final NotifierImpl notifier = new NotifierImpl(executor);
+        final List<OrderListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final OrderListener listener = new OrderListener();
+            notifier.addListener(listener);
+            listeners.add(listener);
+        }
+
+        try {
+
+            // the ring is much smaller than the number of events, so publishers wrap around and wait for consumers
+            for (int i = 0; i < EVENTS; i++) {
+                notifier.beforeTask(Integer.toString(i), i, i, null);
+                notifier.afterTask(Integer.toString(i), i, i, 0, null, null);
+            }
+
+            for (OrderListener listener : listeners) {
+                Assert.assertTrue(listener.done.await(30, TimeUnit.SECONDS), "events were not delivered");
+                for (int i = 0; i < EVENTS; i++) {
+                    Assert.assertEquals(listener.events.get(2 * i), "before " + i);
+                    Assert.assertEquals(listener.events.get((2 * i) + 1), "after " + i);
+                }
+            }
+
+            Assert.assertEquals(executor.getPublishedCount(), 6L * EVENTS);
+        } finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void testPublishFromConsumer() throws InterruptedException {
+        final RingBufferNotifierExecutor executor = new RingBufferNotifierExecutor(new JAlphaNodeConfigBuilder()
+                .asyncNotificationExecutor().withExecutor(NotificationExecutorMode.RING_BUFFER).withPoolSize(1)
+                .addProperty("ringSize", "2").build());
+
+        final NotifierImpl notifier = new NotifierImpl(executor);
+        final RepublishingListener listener = new RepublishingListener();
+        listener.notifier = notifier;
+        notifier.addListener(listener);
+
+        try {
+
+            // the only consumer fills the ring from a listener, it must not wait for itself
+            notifier.beforeTask("task", 0, 0, null);
+            Assert.assertTrue(listener.done.await(30, TimeUnit.SECONDS), "events were not delivered");
+        } finally {
+            executor.stop();
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.jalphanode.jmx;
 
+import org.jalphanode.executors.LazyInitializingForkJoinExecutor;
+import org.jalphanode.executors.LazyInitializingSchedulerExecutor;
+import org.jalphanode.executors.LazyInitializingVirtualThreadExecutor;
 import org.jalphanode.jmx.mbean.MBean1;
 import org.jalphanode.jmx.mbean.MBean2;
 import org.jalphanode.jmx.mbean.MBean3;
@@ -146,4 +149,24 @@ public class MBeanAnnotationScannerTest {
         Assert.assertEquals(metadata, builder.build());
     }
 
+
+    @Test
+    public void testExecutorOperations() {
+        final MBeanMetadata pool = scanner.scan(LazyInitializingSchedulerExecutor.class);
+        Assert.assertNotNull(pool.getOperation("Resize pool"));
+        Assert.assertNotNull(pool.getOperation("Resize queue"));
+
+        // virtual threads have no work queue
+        final MBeanMetadata virtual = scanner.scan(LazyInitializingVirtualThreadExecutor.class);
+        Assert.assertEquals(virtual.getObjectName(), pool.getObjectName());
+        Assert.assertNotNull(virtual.getOperation("Resize pool"));
+        Assert.assertNull(virtual.getOperation("Resize queue"));
+
+        // the work-stealing pool exposes its own statistics under the same name
+        final MBeanMetadata forkJoin = scanner.scan(LazyInitializingForkJoinExecutor.class);
+        Assert.assertEquals(forkJoin.getObjectName(), pool.getObjectName());
+        Assert.assertNotNull(forkJoin.getAttribute("Active count"));
+        Assert.assertNotNull(forkJoin.getAttribute("Queue depth"));
+        Assert.assertNotNull(forkJoin.getAttribute("Steal count"));
+    }
 }
@@ -15,16 +15,22 @@
  */
 package org.jalphanode.notification;
 
+import org.jalphanode.annotation.AfterTask;
+import org.jalphanode.annotation.BeforeTask;
 import org.jalphanode.annotation.Listener;
 import org.jalphanode.annotation.ViewChanged;
 
 import org.jalphanode.config.ConfigException;
 
+import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Notifier tests.
  *
@@ -67,4 +73,85 @@ public class NotifierImplTest {
     public void testListenerPublicModifier() throws ConfigException {
         notifier.addListener(new ClassTest());
     }
+
+    @Listener
+    public static class TaskListener {
+
+        final List<String> events = new ArrayList<>();
+
+        @BeforeTask
+        public void beforeTask(final Event event) {
+            events.add("before " + event.getComponentName());
+        }
+    }
+
+    @Listener
+    public static class FailingTaskListener extends TaskListener {
+
+        @AfterTask
+        public void afterTask(final Event event) {
+            throw new IllegalStateException("listener failure");
+        }
+    }
+
+    @Test
+    public void testDispatch() {
+        Assert.assertFalse(notifier.hasListeners(BeforeTask.class));
+
+        final FailingTaskListener listener = new FailingTaskListener();
+        notifier.addListener(listener);
+        Assert.assertTrue(notifier.hasListeners(BeforeTask.class));
+        Assert.assertFalse(notifier.hasListeners(ViewChanged.class));
+
+        // the inherited method is dispatched and the failure does not reach the caller
+        notifier.beforeTask("task", 0, 0, null);
+        notifier.afterTask("task", 0, 0, 0, null, null);
+
+        Assert.assertEquals(listener.events.size(), 1);
+        Assert.assertEquals(listener.events.get(0), "before task");
+    }
+
+    @Listener
+    public static class ExecutionListener {
+
+        final List<TaskExecutionEvent> events = new ArrayList<>();
+
+        @BeforeTask
+        public void beforeTask(final TaskExecutionEvent event) {
+            events.add(event);
+        }
+
+        @AfterTask
+        public void afterTask(final TaskExecutionEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Test
+    public void testTaskExecutionEvent() {
+        final ExecutionListener listener = new ExecutionListener();
+        notifier.addListener(listener);
+
+        final IllegalStateException failure = new IllegalStateException("task failure");
+        notifier.beforeTask("task", 1000, 1005, null);
+        notifier.afterTask("task", 1000, 1005, 42, null, null);
+        notifier.afterTask("task", 2000, 2001, 7, failure, null);
+
+        Assert.assertEquals(listener.events.size(), 3);
+
+        final TaskExecutionEvent before = listener.events.get(0);
+        Assert.assertEquals(before.getComponentName(), "task");
+        Assert.assertEquals(before.getScheduledTime(), 1000);
+        Assert.assertEquals(before.getStartTime(), 1005);
+        Assert.assertEquals(before.getOutcome(), TaskExecutionEvent.Outcome.RUNNING);
+
+        final TaskExecutionEvent after = listener.events.get(1);
+        Assert.assertEquals(after.getDuration(), 42);
+        Assert.assertEquals(after.getOutcome(), TaskExecutionEvent.Outcome.SUCCEEDED);
+        Assert.assertNull(after.getException());
+
+        final TaskExecutionEvent failed = listener.events.get(2);
+        Assert.assertEquals(failed.getOutcome(), TaskExecutionEvent.Outcome.FAILED);
+        Assert.assertSame(failed.getException(), failure);
+    }
 }
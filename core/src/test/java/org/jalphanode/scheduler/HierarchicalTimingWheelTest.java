@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class HierarchicalTimingWheelTest {
+
+    @Test
+    public void testExpiryOrder() throws InterruptedException {
+
+        // 4 slots per wheel: delays above 4 ms are cascaded and delays above 64 ms overflow the last wheel
+        final TimerQueue<Timeout> wheel = new HierarchicalTimingWheel<>(1, TimeUnit.MILLISECONDS, 4, 3);
+
+        final long[] delays = {150, 0, 3, 90, 17, 40, 5};
+        for (final long delay : delays) {
+            wheel.add(new Timeout(delay));
+        }
+
+        long previous = 0;
+        for (int i = 0; i < delays.length; i++) {
+            final Timeout timeout = wheel.take();
+            Assert.assertTrue(timeout.getDelay(TimeUnit.MILLISECONDS) <= 0, "expired before its deadline");
+            Assert.assertTrue(timeout.deadline >= previous, "expired out of order");
+            previous = timeout.deadline;
+        }
+    }
+
+    @Test
+    public void testDrainSameInstant() throws InterruptedException {
+        final TimerQueue<Timeout> wheel = new HierarchicalTimingWheel<>(10, TimeUnit.MILLISECONDS, 8, 2);
+
+        for (int i = 0; i < 5; i++) {
+            wheel.add(new Timeout(20));
+        }
+
+        wheel.add(new Timeout(500));
+
+        final List<Timeout> batch = new ArrayList<>();
+        batch.add(wheel.take());
+        Assert.assertEquals(wheel.drainTo(batch), 4);
+        Assert.assertEquals(batch.size(), 5);
+        Assert.assertEquals(wheel.drainTo(batch), 0, "drained an element before its deadline");
+    }
+
+    @Test(expectedExceptions = InterruptedException.class)
+    public void testInterrupt() throws InterruptedException {
+        final TimerQueue<Timeout> wheel = new HierarchicalTimingWheel<>(1, TimeUnit.MILLISECONDS, 4, 3);
+        Thread.currentThread().interrupt();
+        wheel.take();
+    }
+
+    private static class Timeout implements Delayed {
+
+        private final long deadline;
+
+        Timeout(final long delay) {
+            this.deadline = System.currentTimeMillis() + delay;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(this.deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed o) {
+            return Long.compare(this.deadline, ((Timeout) o).deadline);
+        }
+    }
+}
@@ -0,0 +1,535 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.jalphanode.cluster.FencingCheck;
+import org.jalphanode.cluster.ScheduleStateRegistry;
+import org.jalphanode.cluster.ScheduleStateUpdate;
+import org.jalphanode.cluster.TestMembershipManager;
+import org.jalphanode.config.JAlphaNodeType;
+import org.jalphanode.config.MisfirePolicy;
+import org.jalphanode.config.OverlapPolicy;
+import org.jalphanode.config.TaskConfig;
+import org.jalphanode.config.TaskType;
+import org.jalphanode.jmx.MBeanRegistry;
+import org.jalphanode.notification.NotifierImpl;
+import org.jalphanode.stats.SchedulingLag;
+import org.jalphanode.stats.TaskMetricsListener;
+import org.jalphanode.stats.TaskStatistics;
+import org.jalphanode.stats.TaskStatisticsRegistry;
+import org.jalphanode.task.Task;
+import org.jalphanode.task.TaskContext;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Task scheduler tests, running a single node.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class TaskSchedulerImplTest {
+
+    private static final MBeanRegistry NO_MBEANS = new MBeanRegistry() {
+
+        @Override
+        public ObjectInstance register(final Object instance, final String objectName) {
+            return null;
+        }
+
+        @Override
+        public void unregister(final ObjectName name) {
+            // nothing registered
+        }
+
+        @Override
+        public void unregisterAll() {
+            // nothing registered
+        }
+    };
+
+    private ExecutorService executor;
+    private ScheduleStateRegistry scheduleStates;
+    private TaskStatisticsRegistry statisticsRegistry;
+    private SchedulingLag schedulingLag;
+    private TaskSchedulerImpl scheduler;
+
+    /**
+     * Task tracking how many of its runs overlap.
+     */
+    private static final class OverlapTask implements Task {
+
+        private final long duration;
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final AtomicInteger runs = new AtomicInteger();
+
+        OverlapTask(final long duration) {
+            this.duration = duration;
+        }
+
+        @Override
+        public void onTimeout(final TaskConfig config) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+                runs.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Task whose runs block until the test releases them.
+     */
+    private static final class BlockingTask implements Task {
+
+        private final CountDownLatch started;
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        BlockingTask(final int runs) {
+            this.started = new CountDownLatch(runs);
+        }
+
+        @Override
+        public void onTimeout(final TaskConfig config) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Task recording the scheduled time of its runs.
+     */
+    private static final class RecordingTask implements Task {
+
+        private final long duration;
+        private final List<Long> scheduledTimes = new CopyOnWriteArrayList<>();
+
+        RecordingTask(final long duration) {
+            this.duration = duration;
+        }
+
+        @Override
+        public void onTimeout(final TaskConfig config) {
+            throw new UnsupportedOperationException("runs with a context");
+        }
+
+        @Override
+        public void onTimeout(final TaskContext context) {
+            scheduledTimes.add(context.getScheduledTime());
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Fixed rate schedule whose first fire time is already past, as after a long pause of the scheduler.
+     */
+    private static final class LateIterator implements EpochScheduleIterator {
+
+        private final FixedRateIterator delegate;
+        private final AtomicBoolean first = new AtomicBoolean(true);
+
+        LateIterator(final long lateness, final long period) {
+            this.delegate = new FixedRateIterator(period, TimeUnit.MILLISECONDS,
+                    System.currentTimeMillis() - lateness);
+        }
+
+        long getStartTime() {
+            return delegate.getStartTime();
+        }
+
+        @Override
+        public long nextEpochMillis(final long epochMillis) {
+            return first.getAndSet(false) ? delegate.getStartTime() : delegate.nextEpochMillis(epochMillis);
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        final TestMembershipManager membershipManager = new TestMembershipManager("a-1");
+        scheduleStates = new ScheduleStateRegistry(() -> membershipManager);
+        statisticsRegistry = new TaskStatisticsRegistry(NO_MBEANS);
+        schedulingLag = new SchedulingLag();
+    }
+
+    @AfterMethod
+    public void tearDown() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.stop();
+            scheduler = null;
+        }
+
+        scheduleStates.stop();
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private TaskSchedulerImpl newScheduler(final TaskMetricsListener metricsListener,
+            final FencingCheck fencingCheck) {
+        return newScheduler(new JAlphaNodeType(), executor, metricsListener, fencingCheck);
+    }
+
+    private TaskSchedulerImpl newScheduler(final JAlphaNodeType config, final Executor taskExecutor,
+            final TaskMetricsListener metricsListener, final FencingCheck fencingCheck) {
+        scheduler = new TaskSchedulerImpl(config, taskExecutor, new TestMembershipManager("a-1"), scheduleStates,
+                new NotifierImpl(MoreExecutors.directExecutor()), statisticsRegistry, schedulingLag, metricsListener,
+                fencingCheck);
+
+        return scheduler;
+    }
+
+    private static TaskType newTask(final String taskName, final long period, final Task task) {
+        final TaskType taskConfig = new TaskType();
+        taskConfig.setTaskName(taskName);
+        taskConfig.setScheduleIterator(new FixedRateIterator(period, TimeUnit.MILLISECONDS));
+        taskConfig.setTask(task);
+
+        return taskConfig;
+    }
+
+    private static TaskType newTask(final String taskName, final long period, final Task task,
+            final OverlapPolicy overlapPolicy, final int maxConcurrent) {
+        final TaskType taskConfig = newTask(taskName, period, task);
+        taskConfig.setOverlapPolicy(overlapPolicy);
+        taskConfig.setMaxConcurrent(maxConcurrent);
+
+        return taskConfig;
+    }
+
+    private static TaskType newLateTask(final String taskName, final LateIterator iterator, final Task task,
+            final MisfirePolicy misfirePolicy) {
+        final TaskType taskConfig = new TaskType();
+        taskConfig.setTaskName(taskName);
+        taskConfig.setScheduleIterator(iterator);
+        taskConfig.setTask(task);
+        taskConfig.setMisfirePolicy(misfirePolicy);
+        taskConfig.setMisfireThreshold(80L);
+        taskConfig.setCatchUpRate(100);
+
+        return taskConfig;
+    }
+
+    private void runFor(final long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        scheduler.stop();
+        scheduler = null;
+
+        // let the runs in progress complete
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMetrics() throws InterruptedException {
+        final CountDownLatch succeeded = new CountDownLatch(3);
+        final CountDownLatch failed = new CountDownLatch(3);
+        final AtomicInteger badLags = new AtomicInteger();
+        final TaskMetricsListener listener = (taskName, scheduledTime, dequeueLag, startLag, duration, fail) -> {
+            if ((dequeueLag < 0) || (startLag < dequeueLag) || (duration < 0)) {
+                badLags.incrementAndGet();
+            }
+
+            if ("good".equals(taskName) && !fail) {
+                succeeded.countDown();
+            } else if ("bad".equals(taskName) && fail) {
+                failed.countDown();
+            }
+        };
+
+        final TaskSchedulerImpl taskScheduler = newScheduler(listener, FencingCheck.NONE);
+        taskScheduler.schedule(newTask("good", 10, config -> { }));
+        taskScheduler.schedule(newTask("bad", 10, config -> {
+                    throw new IllegalStateException("expected");
+                }));
+
+        Assert.assertTrue(succeeded.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(failed.await(5, TimeUnit.SECONDS));
+        taskScheduler.stop();
+
+        Assert.assertEquals(badLags.get(), 0);
+        Assert.assertTrue(schedulingLag.getFirings() >= 6);
+
+        final TaskStatistics good = statisticsRegistry.getStatistics("good");
+        Assert.assertTrue(good.getSchedulingLag().getFirings() >= 3);
+        Assert.assertTrue(statisticsRegistry.getStatistics("bad").getFailureCount() >= 3);
+    }
+
+    @Test
+    public void testLanes() throws InterruptedException {
+        final JAlphaNodeType config = new JAlphaNodeType();
+        config.getTaskScheduler().getProperties().put("lanes", "4");
+
+        // every lane hands the tasks it fires to the executor from its own runner thread
+        final Set<String> runners = ConcurrentHashMap.newKeySet();
+        final Executor recording = command -> {
+            runners.add(Thread.currentThread().getName());
+            executor.execute(command);
+        };
+
+        final TaskSchedulerImpl taskScheduler = newScheduler(config, recording, TaskMetricsListener.NO_OP,
+                FencingCheck.NONE);
+        final List<CountDownLatch> fired = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final CountDownLatch latch = new CountDownLatch(3);
+            taskScheduler.schedule(newTask("lane-" + i, 10, taskConfig -> latch.countDown()));
+            fired.add(latch);
+        }
+
+        for (int i = 0; i < fired.size(); i++) {
+            Assert.assertTrue(fired.get(i).await(5, TimeUnit.SECONDS), "lane-" + i + " did not fire");
+        }
+
+        Assert.assertEquals(runners, new HashSet<>(Arrays.asList("Runner thread-0", "Runner thread-1",
+                    "Runner thread-2", "Runner thread-3")));
+    }
+
+    @Test
+    public void testSkip() throws InterruptedException {
+        final OverlapTask task = new OverlapTask(50);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newTask("skip", 10, task,
+                OverlapPolicy.SKIP, 1));
+        runFor(500);
+
+        final TaskStatistics statistics = statisticsRegistry.getStatistics("skip");
+        Assert.assertEquals(task.maxRunning.get(), 1);
+        Assert.assertTrue(task.runs.get() > 1);
+        Assert.assertTrue(statistics.getSkippedCount() > 0);
+        Assert.assertEquals(statistics.getCoalescedCount(), 0);
+        Assert.assertEquals(statistics.getRunning(), 0);
+    }
+
+    @Test
+    public void testOnlyRunsAreHandedOver() throws InterruptedException {
+        final RecordingTask task = new RecordingTask(50);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newTask("handed", 10, task,
+                OverlapPolicy.SKIP, 1));
+        runFor(300);
+
+        // skipped firings are not recorded as fired, so a new owner would not take them for run
+        final List<Long> scheduledTimes = task.scheduledTimes;
+        Assert.assertTrue(statisticsRegistry.getStatistics("handed").getSkippedCount() > 0);
+        Assert.assertEquals(scheduleStates.getLastFireTime("handed"),
+            (long) scheduledTimes.get(scheduledTimes.size() - 1));
+    }
+
+    @Test
+    public void testCoalesce() throws InterruptedException {
+        final OverlapTask task = new OverlapTask(50);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newTask("coalesce", 10, task,
+                OverlapPolicy.COALESCE, 1));
+        runFor(500);
+
+        final TaskStatistics statistics = statisticsRegistry.getStatistics("coalesce");
+        Assert.assertEquals(task.maxRunning.get(), 1);
+        Assert.assertTrue(task.runs.get() > 1);
+        Assert.assertTrue(statistics.getCoalescedCount() > 0);
+        Assert.assertEquals(statistics.getSkippedCount(), 0);
+        Assert.assertEquals(statistics.getRunning(), 0);
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        final BlockingTask task = new BlockingTask(3);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newTask("concurrent", 5, task,
+                OverlapPolicy.CONCURRENT, 3));
+        Assert.assertTrue(task.started.await(5, TimeUnit.SECONDS), "runs did not overlap");
+
+        // while the three runs block, every firing is skipped
+        final TaskStatistics statistics = statisticsRegistry.getStatistics("concurrent");
+        final long deadline = System.currentTimeMillis() + 5000;
+        while ((statistics.getSkippedCount() == 0) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(5);
+        }
+
+        Assert.assertTrue(statistics.getSkippedCount() > 0);
+        Assert.assertEquals(task.running.get(), 3);
+
+        task.released.countDown();
+        runFor(0);
+
+        Assert.assertEquals(task.maxRunning.get(), 3);
+        Assert.assertEquals(statistics.getRunning(), 0);
+    }
+
+    @Test
+    public void testCompletionRacesDeferral() throws InterruptedException {
+
+        // runs complete about when the next firing is deferred, the task must never overlap nor get stuck
+        final OverlapTask task = new OverlapTask(1);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newTask("race", 1, task,
+                OverlapPolicy.COALESCE, 1));
+        Thread.sleep(1000);
+
+        final int runs = task.runs.get();
+        Thread.sleep(200);
+        Assert.assertTrue(task.runs.get() > runs, "the task stopped running");
+        runFor(0);
+
+        Assert.assertEquals(task.maxRunning.get(), 1);
+        Assert.assertEquals(statisticsRegistry.getStatistics("race").getRunning(), 0);
+    }
+
+    @Test
+    public void testFailureOutsideTask() throws InterruptedException {
+        final AtomicInteger checks = new AtomicInteger();
+        final FencingCheck failing = (taskName, fencingToken) -> {
+            if (checks.incrementAndGet() <= 2) {
+                throw new IllegalStateException("expected");
+            }
+
+            return true;
+        };
+
+        // a failure outside the task gives the run slot back, so the task keeps running
+        final OverlapTask task = new OverlapTask(0);
+        newScheduler(TaskMetricsListener.NO_OP, failing).schedule(newTask("failing", 10, task,
+                OverlapPolicy.COALESCE, 1));
+        runFor(300);
+
+        Assert.assertTrue(task.runs.get() >= 3);
+    }
+
+    @Test
+    public void testFireAllMissed() throws InterruptedException {
+
+        // runs take longer than the catch-up interval, yet no missed fire time is folded into another
+        final LateIterator iterator = new LateIterator(1000, 100);
+        final RecordingTask task = new RecordingTask(30);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newLateTask("all", iterator, task,
+                MisfirePolicy.FIRE_ALL_MISSED));
+        runFor(800);
+
+        final List<Long> scheduledTimes = task.scheduledTimes;
+        Assert.assertTrue(scheduledTimes.size() >= 10, scheduledTimes.toString());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(scheduledTimes.get(i), Long.valueOf(iterator.getStartTime() + (i * 100)));
+        }
+
+        Assert.assertTrue(statisticsRegistry.getStatistics("all").getMisfireCount() >= 10);
+    }
+
+    @Test
+    public void testFireOnceNow() throws InterruptedException {
+        final LateIterator iterator = new LateIterator(1000, 100);
+        final RecordingTask task = new RecordingTask(0);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newLateTask("once", iterator, task,
+                MisfirePolicy.FIRE_ONCE_NOW));
+        runFor(300);
+
+        // the first missed fire time runs, the others are skipped
+        final List<Long> scheduledTimes = task.scheduledTimes;
+        Assert.assertTrue(scheduledTimes.size() >= 2, scheduledTimes.toString());
+        Assert.assertEquals(scheduledTimes.get(0), Long.valueOf(iterator.getStartTime()));
+        Assert.assertTrue(scheduledTimes.get(1) >= (iterator.getStartTime() + 1000), scheduledTimes.toString());
+        Assert.assertTrue(statisticsRegistry.getStatistics("once").getMisfireCount() >= 1);
+    }
+
+    @Test
+    public void testSkipToNext() throws InterruptedException {
+        final LateIterator iterator = new LateIterator(1000, 100);
+        final RecordingTask task = new RecordingTask(0);
+        newScheduler(TaskMetricsListener.NO_OP, FencingCheck.NONE).schedule(newLateTask("next", iterator, task,
+                MisfirePolicy.SKIP_TO_NEXT));
+        runFor(300);
+
+        // no missed fire time runs
+        final List<Long> scheduledTimes = task.scheduledTimes;
+        Assert.assertFalse(scheduledTimes.isEmpty());
+        Assert.assertTrue(scheduledTimes.get(0) >= (iterator.getStartTime() + 1000), scheduledTimes.toString());
+        Assert.assertTrue(statisticsRegistry.getStatistics("next").getMisfireCount() >= 1);
+    }
+
+    @Test
+    public void testFailoverCatchUp() throws InterruptedException {
+        final long startTime = System.currentTimeMillis() - 3500;
+        final RecordingTask task = new RecordingTask(30);
+        final TaskType taskConfig = new TaskType();
+        taskConfig.setTaskName("failover");
+        taskConfig.setScheduleIterator(new FixedRateIterator(1000, TimeUnit.MILLISECONDS, startTime));
+        taskConfig.setTask(task);
+        taskConfig.setMisfirePolicy(MisfirePolicy.FIRE_ALL_MISSED);
+        taskConfig.setMisfireThreshold(80L);
+        taskConfig.setCatchUpRate(10);
+
+        // the time each firing was dequeued, as seen by the scheduler
+        final Map<Long, Long> dequeueTimes = new ConcurrentHashMap<>();
+        final CountDownLatch fired = new CountDownLatch(5);
+        final TaskMetricsListener listener = (taskName, scheduledTime, dequeueLag, startLag, duration, fail) -> {
+            dequeueTimes.put(scheduledTime, scheduledTime + TimeUnit.NANOSECONDS.toMillis(dequeueLag));
+            fired.countDown();
+        };
+
+        newScheduler(listener, FencingCheck.NONE).schedule(taskConfig);
+
+        // the previous owner left without firing the first fire time
+        scheduleStates.merge(new TestMembershipManager("b-2").getNodeAddress(),
+            new ScheduleStateUpdate(new String[] {"failover"}, new long[] {startTime - 1000}, new long[] {startTime}));
+        scheduleStates.ownersChanged();
+        Assert.assertTrue(fired.await(5, TimeUnit.SECONDS), task.scheduledTimes.toString());
+        runFor(0);
+
+        // each missed fire time runs once, in order and no faster than the catch-up rate, then the schedule goes on
+        final List<Long> scheduledTimes = task.scheduledTimes;
+        Assert.assertEquals(scheduledTimes.subList(0, 5),
+            Arrays.asList(startTime, startTime + 1000, startTime + 2000, startTime + 3000, startTime + 4000));
+        for (int i = 1; i < 4; i++) {
+            final long interval = dequeueTimes.get(scheduledTimes.get(i)) - dequeueTimes.get(scheduledTimes.get(i - 1));
+            Assert.assertTrue(interval >= 100, dequeueTimes.toString());
+        }
+
+        Assert.assertEquals(scheduleStates.getLastFireTime("failover"),
+            (long) scheduledTimes.get(scheduledTimes.size() - 1));
+    }
+}
@@ -17,9 +17,24 @@ package org.jalphanode.scheduler.iterator;
 
 import java.text.ParseException;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
 import org.jalphanode.scheduler.CronIterator;
+import org.jalphanode.scheduler.EpochScheduleIterator;
+import org.jalphanode.scheduler.EpochScheduleIteratorAdapter;
+import org.jalphanode.scheduler.ScheduleIterator;
 import org.jalphanode.scheduler.SchedulerParseException;
 
+import org.testng.Assert;
+
 import org.testng.annotations.Test;
 
 /**
@@ -30,6 +45,12 @@ import org.testng.annotations.Test;
  */
 public class CronIteratorTest {
 
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final TimeZone LISBON = TimeZone.getTimeZone("Europe/Lisbon");
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+
     @Test
     public void cronIterator() throws SchedulerParseException, ParseException {
 
@@ -41,4 +62,116 @@ public class CronIteratorTest {
 
         new CronIterator("0 0 0 25 12 ?");
     }
+
+    @Test
+    public void next() throws SchedulerParseException {
+        assertNext("0 0 12 * * ?", UTC, "2011-06-15T10:00:00.500Z", "2011-06-15T12:00:00Z");
+        assertNext("*/20 * * * * ?", UTC, "2011-06-15T10:00:40Z", "2011-06-15T10:01:00Z");
+        assertNext("0 15 10 ? * MON-FRI", UTC, "2011-06-17T11:00:00Z", "2011-06-20T10:15:00Z");
+        assertNext("0 0 0 1 * ?", UTC, "2011-06-15T10:00:00Z", "2011-07-01T00:00:00Z");
+        assertNext("0 0 2 1-7 * SUN", UTC, "2013-09-06T00:59:07Z", "2013-10-06T02:00:00Z");
+        assertNext("0 0 0 29 FEB ?", UTC, "2011-03-01T00:00:00Z", "2012-02-29T00:00:00Z");
+        assertNext("0 0 0 1 1 ?", UTC, "1969-06-01T00:00:00Z", "1970-01-01T00:00:00Z");
+
+        final CronIterator iterator = new CronIterator("0 0 12 * * ?", UTC);
+        Assert.assertEquals(iterator.next(new Date(Instant.parse("2011-06-15T13:00:00Z").toEpochMilli())),
+            new Date(Instant.parse("2011-06-16T12:00:00Z").toEpochMilli()));
+    }
+
+    @Test
+    public void nextAcrossDaylightSavingGap() throws SchedulerParseException {
+
+        // 01:30 does not exist and resolves to 02:30 WEST
+        assertNext("0 30 * * * ?", LISBON, "2011-03-27T00:45:00Z", "2011-03-27T01:30:00Z");
+
+        // 01:30 does not exist and the shifted time no longer matches the hour
+        assertNext("0 30 1 * * ?", LISBON, "2011-03-26T12:00:00Z", "2011-03-28T00:30:00Z");
+        assertNext("0 0 2 * * ?", NEW_YORK, "2011-03-13T05:00:00Z", "2011-03-14T06:00:00Z");
+    }
+
+    @Test
+    public void nextAcrossDaylightSavingOverlap() throws SchedulerParseException {
+
+        // ambiguous wall clock times resolve to their later occurrence
+        assertNext("* * * * * ?", LISBON, "2011-10-30T00:30:00Z", "2011-10-30T01:30:01Z");
+        assertNext("0 30 1 * * ?", NEW_YORK, "2011-11-06T04:00:00Z", "2011-11-06T06:30:00Z");
+        assertNext("0 0 12 * * ?", LISBON, "2011-10-29T12:00:00Z", "2011-10-30T12:00:00Z");
+    }
+
+    @Test
+    public void nextJavaTime() throws SchedulerParseException {
+        final CronIterator iterator = new CronIterator("0 0 12 * * ?", LISBON);
+
+        Assert.assertEquals(iterator.next(Instant.parse("2011-07-01T13:00:00Z")), Instant.parse("2011-07-02T11:00:00Z"));
+
+        final ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+        final ZonedDateTime next = iterator.next(ZonedDateTime.of(2011, 7, 1, 22, 0, 0, 0, tokyo));
+        Assert.assertEquals(next, ZonedDateTime.of(2011, 7, 2, 20, 0, 0, 0, tokyo));
+    }
+
+    @Test
+    public void nextBatch() throws SchedulerParseException {
+        final CronIterator iterator = new CronIterator("0 0 9 ? * MON,FRI", UTC);
+        final long[] times = new long[4];
+
+        Assert.assertEquals(iterator.nextEpochMillis(Instant.parse("2011-06-15T10:00:00Z").toEpochMilli(), times), 4);
+        Assert.assertEquals(times,
+            new long[] {
+                Instant.parse("2011-06-17T09:00:00Z").toEpochMilli(),
+                Instant.parse("2011-06-20T09:00:00Z").toEpochMilli(),
+                Instant.parse("2011-06-24T09:00:00Z").toEpochMilli(),
+                Instant.parse("2011-06-27T09:00:00Z").toEpochMilli()
+            });
+    }
+
+    @Test
+    public void forEachInRange() throws SchedulerParseException {
+        final CronIterator iterator = new CronIterator("0 */15 * * * ?", LISBON);
+        final List<Long> times = new ArrayList<>();
+
+        // the day daylight saving time ends has 25 hours, but the repeated hour fires only once
+        final long from = Instant.parse("2011-10-29T23:00:00Z").toEpochMilli();
+        final long to = Instant.parse("2011-10-31T00:00:00Z").toEpochMilli();
+        Assert.assertEquals(iterator.forEachEpochMillis(from, to, times::add), 96);
+        Assert.assertEquals(times.get(0).longValue(), from);
+        Assert.assertEquals(times.get(95).longValue(), to - TimeUnit.MINUTES.toMillis(15));
+    }
+
+    @Test
+    public void adapter() throws SchedulerParseException {
+        final CronIterator cron = new CronIterator("0 0 12 * * ?", UTC);
+        Assert.assertSame(EpochScheduleIteratorAdapter.adapt(cron), cron);
+
+        final ScheduleIterator once = date -> (date.getTime() < 1000) ? new Date(1000) : null;
+        final EpochScheduleIterator adapted = EpochScheduleIteratorAdapter.adapt(once);
+        Assert.assertEquals(adapted.nextEpochMillis(0), 1000);
+        Assert.assertEquals(adapted.nextEpochMillis(1000), EpochScheduleIterator.NO_NEXT);
+        Assert.assertNull(adapted.next(Instant.ofEpochMilli(1000)));
+    }
+
+    @Test
+    public void compile() throws SchedulerParseException {
+        final CronIterator cron = CronIterator.compile("*/1 * * * * ?", TimeZone.getTimeZone("Europe/Lisbon"));
+
+        Assert.assertSame(CronIterator.compile("*/1 * * * * ?", TimeZone.getTimeZone("Europe/Lisbon")), cron);
+        Assert.assertNotSame(CronIterator.compile("*/1 * * * * ?", UTC), cron);
+        Assert.assertNotSame(CronIterator.compile("*/2 * * * * ?", LISBON), cron);
+    }
+
+    @Test(expectedExceptions = SchedulerParseException.class)
+    public void compileInvalid() throws SchedulerParseException {
+        CronIterator.compile("0 0 12 * *", UTC);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void nextRunawaySearch() throws SchedulerParseException {
+        new CronIterator("0 0 0 30 2 ?", UTC).nextEpochMillis(0);
+    }
+
+    private static void assertNext(final String expression, final TimeZone timeZone, final String seed,
+            final String expected) throws SchedulerParseException {
+        final CronIterator iterator = new CronIterator(expression, timeZone);
+        Assert.assertEquals(Instant.ofEpochMilli(iterator.nextEpochMillis(Instant.parse(seed).toEpochMilli())),
+            Instant.parse(expected), expression + " from " + seed);
+    }
 }
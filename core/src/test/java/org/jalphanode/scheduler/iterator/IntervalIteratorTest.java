@@ -0,0 +1,86 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.scheduler.iterator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jalphanode.scheduler.EpochScheduleIterator;
+import org.jalphanode.scheduler.FixedDelayIterator;
+import org.jalphanode.scheduler.FixedRateIterator;
+
+import org.testng.Assert;
+
+import org.testng.annotations.Test;
+
+/**
+ * Fixed-rate and fixed-delay iterator test.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class IntervalIteratorTest {
+
+    private static final long START = 1000000L;
+
+    @Test
+    public void fixedRate() {
+        final EpochScheduleIterator iterator = new FixedRateIterator(250, TimeUnit.MILLISECONDS, START);
+
+        Assert.assertEquals(iterator.nextEpochMillis(START - 5000), START);
+        Assert.assertEquals(iterator.nextEpochMillis(START), START + 250);
+        Assert.assertEquals(iterator.nextEpochMillis(START + 249), START + 250);
+        Assert.assertEquals(iterator.nextEpochMillis(START + 250), START + 500);
+
+        // a late run does not shift the grid
+        Assert.assertEquals(iterator.nextEpochMillis(START + 1337), START + 1500);
+    }
+
+    @Test
+    public void fixedRateDoesNotDrift() {
+
+        // a third of a second cannot be represented in milliseconds
+        final EpochScheduleIterator iterator = new FixedRateIterator(333333333, TimeUnit.NANOSECONDS, START);
+
+        long time = START;
+        for (int i = 0; i < 3000; i++) {
+            final long next = iterator.nextEpochMillis(time);
+            Assert.assertTrue(next > time);
+            time = next;
+        }
+
+        Assert.assertEquals(time, START + 1000000);
+    }
+
+    @Test
+    public void fixedRateSubMillisecond() {
+        final EpochScheduleIterator iterator = new FixedRateIterator(250, TimeUnit.MICROSECONDS, START);
+
+        Assert.assertEquals(iterator.nextEpochMillis(START), START + 1);
+        Assert.assertEquals(iterator.nextEpochMillis(START + 1), START + 2);
+    }
+
+    @Test
+    public void fixedDelay() {
+        Assert.assertEquals(new FixedDelayIterator(2, TimeUnit.SECONDS).nextEpochMillis(START), START + 2000);
+        Assert.assertEquals(new FixedDelayIterator(1500, TimeUnit.MICROSECONDS).nextEpochMillis(START), START + 2);
+        Assert.assertEquals(new FixedDelayIterator(1, TimeUnit.NANOSECONDS).nextEpochMillis(START), START + 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidPeriod() {
+        new FixedRateIterator(0, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Latency histogram tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100000);
+        Assert.assertEquals(histogram.getMax(), 100000000);
+        Assert.assertEquals(histogram.getMean(), 50000500.0, 0.1);
+        assertWithinPrecision(histogram.getValueAtPercentile(50), 50000000);
+        assertWithinPrecision(histogram.getValueAtPercentile(99), 99000000);
+        assertWithinPrecision(histogram.getValueAtPercentile(99.9), 99900000);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 100000000);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 10; value++) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 4);
+        Assert.assertEquals(histogram.getValueAtPercentile(0), 0);
+    }
+
+    @Test
+    public void testBoundsAndReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(histogram.getMax(), LatencyHistogram.MAX_VALUE);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 0);
+
+        histogram.reset();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+    }
+
+    private static void assertWithinPrecision(final long actual, final long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= (expected / 32), actual + " is not close to " + expected);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ *    Copyright 2011 Pedro Ribeiro
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.jalphanode.stats;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling lag tests.
+ *
+ * @author   ribeirux
+ * @version  $Revision$
+ */
+public class SchedulingLagTest {
+
+    @Test
+    public void testRecord() {
+        final SchedulingLag lag = new SchedulingLag();
+        lag.record(TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(5));
+        lag.record(TimeUnit.MILLISECONDS.toNanos(4), TimeUnit.MILLISECONDS.toNanos(5));
+
+        Assert.assertEquals(lag.getFirings(), 2);
+        Assert.assertEquals(lag.getDequeueLag().getMax(), TimeUnit.MILLISECONDS.toNanos(4), 1000.0);
+
+        // the executor wait is what the start lag adds to the dequeue lag
+        Assert.assertEquals(lag.getExecutorWait().getMax(), TimeUnit.MILLISECONDS.toNanos(3), 1000.0);
+        Assert.assertEquals(lag.getMeanStartLag(), 5.0, 0.01);
+
+        lag.reset();
+        Assert.assertEquals(lag.getFirings(), 0);
+    }
+}